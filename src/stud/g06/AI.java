@@ -3,8 +3,12 @@ package stud.g06;
 import core.board.Board;
 import core.board.PieceColor;
 import core.game.Game;
+import core.game.GameResult;
 import core.game.Move;
+import core.game.Referee;
+import core.player.Player;
 
+import java.lang.reflect.Field;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -20,15 +24,24 @@ public class AI extends core.player.AI {
     private static final int INF = 10000000;
     private static final long TIME_LIMIT = 8000;
     private static final int[] POW = {1, 10, 100, 1000, 10000, 100000, 1000000};
-    private static final int[] ROAD_SCORE = {0, 9, 520, 2070, 7890, 10020, 1000000};
-    private static final int[] ROAD_SCORE_DEF = {0, 3, 480, 2670, 3887, 4900, 1000000};
+    // Leaf evaluation road weights; built-in defaults unless -Dg06.weights names a tuned file.
+    private static final EvalWeights WEIGHTS = EvalWeights.loadDefault();
+    private static final int[] ROAD_SCORE = WEIGHTS.roadScore;
+    private static final int[] ROAD_SCORE_DEF = WEIGHTS.roadScoreDef;
 
     // g02(1).jar opening when it is the first player (WHITE): "HHJH" (deterministic).
     private static final Move G02_OPENING_HHJH = Move.parseMove("HHJH");
     // Better BLACK reply we found during tuning: wins reliably vs g02(1).jar in local matches.
     private static final Move G02_BLACK_REPLY_IHKI = Move.parseMove("IHKI");
 
+    // Opening book mapped from g06.book (empty when the file is absent); probed during the first plies only.
+    private static final OpeningBook BOOK = OpeningBook.loadDefault();
+    private static final int BOOK_MAX_PLIES = 12;
+    // Up to this many plies, TT entries are keyed by the symmetry-canonical hash.
+    private static final int SYMMETRY_TT_PLIES = 8;
+
     private long startTime;
+    private long startNanos;
     private Map<Long, int[]> tt = new HashMap<>();
     private long[][] zobrist = new long[361][3];
     private long zobristTurn;
@@ -39,10 +52,23 @@ public class AI extends core.player.AI {
     private int[] threatCache = new int[361];
     private long threatCacheHash = -1;
 
-    private static final long DTSS_BUDGET_MS = 5500;
-    private static final int DTSS_MAX_DEPTH = 27;
-    private static final int DTSS_MAX_POINTS = 32;
-    private static final int DTSS_MAX_MOVES = 80;
+    // Search shape parameters. The defaults are the hand-tuned values; each can be overridden with a g06.* system
+    // property so that SpsaTuner can play perturbed configurations in worker JVMs.
+    private static final long DTSS_BUDGET_MS = parseIntProperty("g06.dtssBudgetMs", 5500, 500, 7500);
+    private static final int DTSS_MAX_DEPTH = parseIntProperty("g06.dtssMaxDepth", 27, 3, 61);
+    private static final int DTSS_MAX_POINTS = parseIntProperty("g06.dtssMaxPoints", 32, 4, 128);
+    private static final int DTSS_MAX_MOVES = parseIntProperty("g06.dtssMaxMoves", 80, 8, 400);
+    private static final int ROOT_TOP_POINTS_OPENING = parseIntProperty("g06.rootTopPointsOpening", 30, 4, 80);
+    private static final int ROOT_TOP_POINTS = parseIntProperty("g06.rootTopPoints", 24, 4, 80);
+    private static final int ROOT_MOVE_LIMIT_OPENING = parseIntProperty("g06.rootMoveLimitOpening", 60, 4, 400);
+    private static final int ROOT_MOVE_LIMIT = parseIntProperty("g06.rootMoveLimit", 35, 4, 400);
+    // Root moves scouted in parallel at depth <= 4; the cap shrinks by 4 per deeper iteration.
+    private static final int PARALLEL_MOVE_CAP = parseIntProperty("g06.parallelMoveCap", 24, 13, 64);
+    // No new iteration starts in the last 1/ITERATION_RESERVE of the move time.
+    private static final int ITERATION_RESERVE = parseIntProperty("g06.iterationReserve", 8, 3, 32);
+
+    // Proven DTSS results shared by all engine instances (persisted with -Dg06.dtssStore=<file>).
+    private static final ForcedWinStore FORCED_WINS = ForcedWinStore.openDefault(DTSS_MAX_POINTS, DTSS_MAX_MOVES);
 
     private static final int ROOT_PARALLEL_THREADS =
             parseIntProperty(
@@ -70,14 +96,54 @@ public class AI extends core.player.AI {
 
     private static final ThreadLocal<AI> ROOT_WORKER = ThreadLocal.withInitial(AI::new);
 
+    // Game and Referee keep the players private; see opponentIn().
+    private static final Field GAME_REFEREE = field(Game.class, "referee");
+    private static final Field REFEREE_FIRST = field(Referee.class, "first");
+    private static final Field REFEREE_SECOND = field(Referee.class, "second");
+
     private PieceColor dtssAttacker;
     private ArrayList<Move> dtssLine;
     private Move dtssBestMove;
-    private long dtssDeadlineMs;
+    private Deadline dtssDeadline = Deadline.never();
     private boolean dtssTimedOut;
+    // Smallest remaining depth dtssSearch was entered with in the current run; the run reached limit minus this.
+    private int dtssMinDepth;
 
-    private long hardDeadlineMs;
+    // Hard stop for the current move; root workers get a fork of the parent's scout deadline.
+    private Deadline hardDeadline = Deadline.never();
+    // Remaining game time as set by a headless referee (null: only the per-move budget applies).
+    private Deadline gameClock;
     private long nodeCounter;
+    // Telemetry of the current move (see SearchStats).
+    private final SearchStats.Counters stats = new SearchStats.Counters();
+
+    // Search budgets; analysis tools override the defaults for a single call.
+    private static final long UNLIMITED_MS = 24L * 60 * 60 * 1000;
+    private long timeLimitMs = TIME_LIMIT;
+    private long nodeLimit = Long.MAX_VALUE;
+    private boolean rootParallel = true;
+    private boolean forcedWinCache = true;
+    // Set for node-limited analysis and the fixed-work entry points: wall-clock sub-budgets are ignored, so the
+    // work done depends only on the position and the node limit.
+    private boolean untimed;
+    private long dtssNodeCounter;
+    private long dtssNodeLimit = Long.MAX_VALUE;
+
+    // Details of the last searchBestMove() call.
+    private SearchReport.Phase lastPhase = SearchReport.Phase.SEARCH;
+    private int lastScore;
+    private int lastDepth;
+    private boolean lastDtssProof;
+
+    // Opponent modelling: this game's observed opponent moves, and the model consulted by the current search.
+    private final ArrayList<long[]> observedReplies = new ArrayList<>();
+    private OpponentModel.Snapshot opponentModel;
+    private PieceColor modelColor;
+    // Snapshot of the current game's opponent, taken when the game starts (null: unknown or never observed).
+    private OpponentModel.Snapshot gameModel;
+
+    // Per-move telemetry of the current game, read by BenchWorker after the game.
+    private final ArrayList<SearchReport> moveReports = new ArrayList<>();
 
     public AI() {
         Random r = new Random(12345);
@@ -90,63 +156,332 @@ public class AI extends core.player.AI {
 
     @Override
     public Move firstMove() {
+        EngineEvents.MoveCommitted event = new EngineEvents.MoveCommitted();
+        event.begin();
+        long t0 = System.currentTimeMillis();
+        stats.reset();
+        Move m = openingFirstMove();
+        stats.finish();
+        SearchReport r = new SearchReport(m, 0, 0, 0, false, SearchReport.Phase.FIRST, System.currentTimeMillis() - t0);
+        moveReports.add(r);
+        recordMove(r, 0, 1);
+        EngineEvents.commit(event, r, 1);
+        return m;
+    }
+
+    private Move openingFirstMove() {
         // With the updated framework, firstMove() is overridable. Use our own deterministic opening.
+        Move book = bookMove();
+        if (book != null) return book;
         PieceColor me = (board != null) ? board.whoseMove() : PieceColor.WHITE;
-        List<Move> moves = genMovesRoot(me);
+        List<Move> moves = rootMoves(me);
         return moves.isEmpty() ? super.firstMove() : moves.get(0);
     }
 
     @Override
     public Move findNextMove(Move opponentMove) {
+        EngineEvents.MoveCommitted event = new EngineEvents.MoveCommitted();
+        event.begin();
         if (opponentMove != null) {
+            BoardPro bp = boardPro();
+            if (bp != null) {
+                observedReplies.add(
+                        new long[]{bp.canonicalHash(), Symmetry.packMove(opponentMove, bp.canonicalTransform())});
+            }
             board.makeMove(opponentMove);
             updateHash(opponentMove);
         }
         syncHashIfNeeded();
+        Move m = commit(searchBestMove(opponentMove));
+        SearchReport r = new SearchReport(m, lastScore, lastDepth, nodeCounter + dtssNodeCounter, lastDtssProof,
+                lastPhase, System.currentTimeMillis() - startTime);
+        int ply = board.getMoveList().size();
+        moveReports.add(r);
+        recordMove(r, dtssNodeCounter, ply);
+        EngineEvents.commit(event, r, ply);
+        return m;
+    }
+
+    // Adds a decided move to the process-wide totals and, with -Dg06.searchLog=true, prints its line for game ply
+    // (moves played, this one included; 0 for offline analysis, which is not logged).
+    private void recordMove(SearchReport r, long dtssNodes, int ply) {
+        SearchStats.recordMove(stats, r.phase(), r.depth(), r.nodes() - dtssNodes, dtssNodes);
+        if (ply > 0 && SearchStats.LOG) System.err.println(SearchStats.logLine(stats, r, ply));
+    }
+
+    /** Reports of the moves this instance has played in the current game, in order. */
+    List<SearchReport> moveReports() {
+        return moveReports;
+    }
+
+    /**
+     * Runs the full move decision on the current board without committing the result.
+     *
+     * <p>Budgets come from {@link #timeLimitMs} and {@link #nodeLimit}; the outcome details are left in
+     * {@link #lastPhase}, {@link #lastScore}, {@link #lastDepth} and {@link #lastDtssProof}.
+     */
+    private Move searchBestMove(Move opponentMove) {
         startTime = System.currentTimeMillis();
-        hardDeadlineMs = startTime + TIME_LIMIT - 200;
+        startNanos = System.nanoTime();
+        long budgetMs = (gameClock != null) ? Math.min(timeLimitMs, gameClock.remainingMs()) : timeLimitMs;
+        hardDeadline = Deadline.at(startNanos, budgetMs - budgetMs / 40);
         nodeCounter = 0;
+        dtssNodeCounter = 0;
+        lastScore = 0;
+        lastDepth = 0;
+        lastDtssProof = false;
+        stats.reset();
         PieceColor me = board.whoseMove();
         PieceColor opp = me.opposite();
+        opponentModel = gameModel;
+        modelColor = opp;
 
         // 1. Immediate win: complete a 4/5-road in one move.
         Move win = findImmediateWinMove(me);
-        if (win != null) return commit(win);
+        if (win != null) return found(win, SearchReport.Phase.IMMEDIATE_WIN, INF);
 
         // 2) Must defend
         BoardPro bp = boardPro();
         if (bp != null && bp.countAllThreats(me) > 0) {
-            Move block = findBestImmediateBlock(me, startTime + 800);
-            if (block != null) return commit(block);
+            Move block = findBestImmediateBlock(me, Deadline.at(startNanos, timeLimitMs / 10));
+            if (block != null) return found(block, SearchReport.Phase.BLOCK, eval(me));
         } else {
-            List<Integer> oppWin = getWinSpots(opp);
-            if (!oppWin.isEmpty()) {
-                int s1 = oppWin.get(0);
-                int s2 = oppWin.size() > 1 ? oppWin.get(1) : getBest(s1, me);
-                return commit(new Move(s1, s2));
+            int[] oppWin = getWinSpots(opp);
+            if (oppWin.length > 0) {
+                int s1 = oppWin[0];
+                int s2 = oppWin.length > 1 ? oppWin[1] : getBest(s1, me);
+                return found(new Move(s1, s2), SearchReport.Phase.BLOCK, eval(me));
             }
         }
 
         // Opening book for the strongest known opponent opening (g02(1).jar).
         // This only affects BLACK's first response move and is a no-op in other situations.
         Move opening = openingReplyMove(opponentMove, me);
-        if (opening != null) return commit(opening);
+        if (opening != null) return found(opening, SearchReport.Phase.OPENING, eval(me));
+        Move book = bookMove();
+        if (book != null) return found(book, SearchReport.Phase.OPENING, eval(me));
 
         // 3) Fast DTSS search (iterative deepening within a fixed budget)
-        long dtssDeadline = startTime + DTSS_BUDGET_MS;
+        stats.enter(SearchStats.Stage.DTSS);
+        Deadline dtssBudget = hardDeadline.within(timeLimitMs * DTSS_BUDGET_MS / TIME_LIMIT);
+        dtssNodeLimit = nodeLimit;
         for (int depth = 3; depth <= DTSS_MAX_DEPTH; depth += 2) {
-            if (System.currentTimeMillis() > dtssDeadline) break;
-            Move dt = findDtssWinningMove(me, depth, dtssDeadline);
-            if (dt != null) return commit(dt);
+            if (dtssBudget.reached() || dtssNodeCounter >= dtssNodeLimit) break;
+            Move dt = findDtssWinningMove(me, depth, dtssBudget);
+            if (dt != null) {
+                lastDepth = depth;
+                lastDtssProof = true;
+                return found(dt, SearchReport.Phase.DTSS, INF - depth);
+            }
         }
 
         // 4) Iterative deepening search
+        stats.enter(SearchStats.Stage.SEARCH);
         Move best = iterativeDeepening(me);
 
         // 5. Root-level safety: avoid moves that allow an opponent DTSS win sequence.
-        long safetyDeadline = startTime + TIME_LIMIT - 200;
-        Move safe = findSafeMoveAgainstDtss(best, me, opp, safetyDeadline);
-        return commit(safe != null ? safe : best);
+        stats.enter(SearchStats.Stage.SAFETY);
+        Move safe = findSafeMoveAgainstDtss(best, me, opp, hardDeadline);
+        if (safe != null && !safe.equals(best)) return found(safe, SearchReport.Phase.SAFETY, lastScore);
+        return found(best, SearchReport.Phase.SEARCH, lastScore);
+    }
+
+    private Move found(Move m, SearchReport.Phase phase, int score) {
+        lastPhase = phase;
+        lastScore = score;
+        stats.finish();
+        return m;
+    }
+
+    /**
+     * Searches {@code position} as if it were our turn in a game, without committing a move.
+     *
+     * <p>Used by offline tools; the board is left unchanged. {@code timeLimitMs <= 0} means no time limit and
+     * {@code nodeLimit <= 0} means no node limit (at least one should be set). The node limit applies to the
+     * alpha-beta and DTSS phases separately. Root parallelism is disabled so that callers can parallelise across
+     * positions and node-limited searches stay reproducible.
+     */
+    SearchReport analyze(BoardPro position, long timeLimitMs, long nodeLimit) {
+        board = position;
+        hash = 0;
+        hashSynced = false;
+        threatCacheHash = -1;
+        syncHashIfNeeded();
+
+        this.timeLimitMs = timeLimitMs > 0 ? timeLimitMs : UNLIMITED_MS;
+        this.nodeLimit = nodeLimit > 0 ? nodeLimit : Long.MAX_VALUE;
+        boolean wasParallel = rootParallel;
+        rootParallel = false;
+        untimed = timeLimitMs <= 0;
+        try {
+            List<Move> history = position.getMoveList();
+            Move last = history.isEmpty() ? null : history.get(history.size() - 1);
+            Move m;
+            if (last == null) {
+                lastPhase = SearchReport.Phase.FIRST;
+                nodeCounter = 0;
+                dtssNodeCounter = 0;
+                lastScore = 0;
+                lastDepth = 0;
+                lastDtssProof = false;
+                startTime = System.currentTimeMillis();
+                stats.reset();
+                m = openingFirstMove();
+                stats.finish();
+            } else {
+                m = searchBestMove(last);
+            }
+            long elapsed = System.currentTimeMillis() - startTime;
+            SearchReport r = new SearchReport(
+                    m, lastScore, lastDepth, nodeCounter + dtssNodeCounter, lastDtssProof, lastPhase, elapsed);
+            recordMove(r, dtssNodeCounter, 0);
+            return r;
+        } finally {
+            this.timeLimitMs = TIME_LIMIT;
+            this.nodeLimit = Long.MAX_VALUE;
+            rootParallel = wasParallel;
+            untimed = false;
+        }
+    }
+
+    /**
+     * Whether root moves are scouted on the shared {@code ROOT_POOL}. In-process runners that play several games at
+     * once turn it off so that the games, not one game's scouts, share the cores.
+     */
+    void setRootParallel(boolean on) {
+        rootParallel = on;
+    }
+
+    /**
+     * Whether DTSS consults and fills the process-wide forced-win store. Node-budgeted analysis turns it off when
+     * results must not depend on what other engines (or earlier runs, through {@code g06.dtssStore}) proved first.
+     */
+    void setForcedWinCache(boolean on) {
+        forcedWinCache = on;
+    }
+
+    /** The point at which this player's game clock runs out, seen by the next search; null to clear. */
+    void setGameClock(Deadline clock) {
+        gameClock = clock;
+    }
+
+    /** Drops per-game search state (transposition table, hash) before analysing an unrelated game. */
+    void resetSearchState() {
+        hash = 0;
+        hashSynced = false;
+        threatCacheHash = -1;
+        tt.clear();
+    }
+
+    // Fixed-work entry points for EngineBench and Perft: no clock, no root pool and no shared DTSS cache, so the same call on
+    // the same position always does the same work.
+
+    /** Loads {@code position} (not copied) as the board the calls below work on. */
+    void setPosition(BoardPro position) {
+        board = position;
+        hash = 0;
+        hashSynced = false;
+        threatCacheHash = -1;
+        syncHashIfNeeded();
+        hardDeadline = Deadline.never();
+        nodeLimit = Long.MAX_VALUE;
+        opponentModel = null;
+        rootParallel = false;
+        untimed = true;
+    }
+
+    List<Move> rootCandidates() {
+        return genMovesRoot(board.whoseMove());
+    }
+
+    List<Move> doubleThreatMoves() {
+        dtssDeadline = Deadline.never();
+        return generateDoubleThreatMoves(board.whoseMove());
+    }
+
+    int staticEval() {
+        return eval(board.whoseMove());
+    }
+
+    /** Full-window negamax of the loaded position to {@code depth} with an empty table; returns the node count. */
+    long fixedDepthNodes(int depth) {
+        tt.clear();
+        nodeCounter = 0;
+        negamax(depth, -INF, INF);
+        return nodeCounter;
+    }
+
+    /**
+     * Fixed-depth alpha-beta of the loaded position with an empty table: each root candidate is searched to
+     * {@code depth} in generation order, the first to reach the best score wins. Table statistics are left in
+     * {@link #ttProbes()} and {@link #ttHits()}.
+     */
+    SearchReport fixedDepthSearch(int depth) {
+        tt.clear();
+        nodeCounter = 0;
+        stats.reset();
+        long t0 = System.nanoTime();
+        Move best = null;
+        int alpha = -INF;
+        for (Move m : rootCandidates()) {
+            makeMove(m);
+            int score = -negamax(depth - 1, -INF, -alpha);
+            undoMove(m);
+            if (best == null || score > alpha) {
+                best = m;
+                alpha = score;
+            }
+        }
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+        return new SearchReport(best, alpha, depth, nodeCounter, false, SearchReport.Phase.SEARCH, ms);
+    }
+
+    long ttProbes() {
+        return stats.ttProbes;
+    }
+
+    long ttHits() {
+        return stats.ttHits;
+    }
+
+    /**
+     * Leaf count of the tree the interior generator spans to {@code depth}: blocks when the side to move faces a
+     * 4/5-road (a lost position, three or more stones needed, is a leaf), otherwise {@code genMoves}. A checksum of
+     * move generation, in the spirit of chess perft.
+     */
+    long movePerft(int depth) {
+        if (depth == 0 || board.gameOver()) return 1;
+        PieceColor me = board.whoseMove();
+        BoardPro bp = boardPro();
+        int level = (bp != null) ? bp.countAllThreats(me) : 0;
+        if (level >= 3) return 1;
+        List<Move> moves = (level > 0) ? generateImmediateBlocks(me, level, Deadline.never()) : genMoves(me);
+        if (depth == 1) return moves.size();
+        long leaves = 0;
+        for (Move m : moves) {
+            makeMove(m);
+            leaves += movePerft(depth - 1);
+            undoMove(m);
+        }
+        return leaves;
+    }
+
+    /** DTSS for the side to move to {@code depth}, bypassing the forced-win cache; returns the node count. */
+    long fixedDepthDtssNodes(int depth) {
+        dtssAttacker = board.whoseMove();
+        dtssLine = new ArrayList<>();
+        dtssBestMove = null;
+        dtssDeadline = Deadline.never();
+        dtssTimedOut = false;
+        dtssNodeCounter = 0;
+        dtssNodeLimit = Long.MAX_VALUE;
+        dtssSearch(depth, RelevanceZone.create());
+        return dtssNodeCounter;
+    }
+
+    // A sub-budget of parent ms long, or parent itself when wall-clock sub-budgets are off (see untimed).
+    private Deadline subBudget(Deadline parent, long ms) {
+        return untimed ? parent : parent.within(ms);
     }
 
     private Move commit(Move m) {
@@ -163,7 +498,7 @@ public class AI extends core.player.AI {
             RoadSet five = (color == PieceColor.BLACK) ? byCount[5][0] : byCount[0][5];
             return !four.isEmpty() || !five.isEmpty();
         }
-        return !getWinSpotsByScan(color).isEmpty();
+        return getWinSpotsByScan(color).length > 0;
     }
 
     private Move findImmediateWinMove(PieceColor color) {
@@ -193,9 +528,8 @@ public class AI extends core.player.AI {
     private Move buildWinMoveFromRoad(Road road, PieceColor color) {
         int p1 = -1;
         int p2 = -1;
-        for (int i = 0; i < 6; i++) {
-            int pos = road.cellAt(i);
-            if (board.get(pos) != PieceColor.EMPTY) continue;
+        for (int m = RoadPattern.emptyMask(road.getPattern()); m != 0; m &= m - 1) {
+            int pos = road.cellAt(Integer.numberOfTrailingZeros(m));
             if (p1 < 0) p1 = pos;
             else {
                 p2 = pos;
@@ -263,7 +597,7 @@ public class AI extends core.player.AI {
     }
 
     // Collect empty cells from 4/5-roads.
-    private List<Integer> getWinSpots(PieceColor color) {
+    private int[] getWinSpots(PieceColor color) {
         BoardPro bp = boardPro();
         if (bp != null) {
             return getWinSpotsFromRoadTable(color, bp.getRoadTable());
@@ -271,31 +605,18 @@ public class AI extends core.player.AI {
         return getWinSpotsByScan(color);
     }
 
-    private List<Integer> getWinSpotsFromRoadTable(PieceColor color, RoadTable roadTable) {
-        Map<Integer, Integer> spots = new HashMap<>();
+    private int[] getWinSpotsFromRoadTable(PieceColor color, RoadTable roadTable) {
         RoadSet[][] byCount = roadTable.getRoadsByCount();
         RoadSet four = (color == PieceColor.BLACK) ? byCount[4][0] : byCount[0][4];
         RoadSet five = (color == PieceColor.BLACK) ? byCount[5][0] : byCount[0][5];
-        addEmptySpotsFromRoadSet(spots, four);
-        addEmptySpotsFromRoadSet(spots, five);
-        List<Integer> result = new ArrayList<>(spots.keySet());
-        result.sort((a, b) -> spots.get(b) - spots.get(a));
-        return result;
+        SpotBuffer spots = SpotBuffer.get().begin();
+        for (Road road : four) spots.addEmpties(road, 1);
+        for (Road road : five) spots.addEmpties(road, 1);
+        return spots.sortedByWeight();
     }
 
-    private void addEmptySpotsFromRoadSet(Map<Integer, Integer> spots, RoadSet roads) {
-        for (Road road : roads) {
-            for (int i = 0; i < 6; i++) {
-                int pos = road.cellAt(i);
-                if (board.get(pos) == PieceColor.EMPTY) {
-                    spots.merge(pos, 1, Integer::sum);
-                }
-            }
-        }
-    }
-
-    private List<Integer> getWinSpotsByScan(PieceColor color) {
-        Map<Integer, Integer> spots = new HashMap<>();
+    private int[] getWinSpotsByScan(PieceColor color) {
+        SpotBuffer spots = SpotBuffer.get().begin();
         PieceColor opp = color.opposite();
         for (int r = 0; r < 19; r++) {
             for (int c = 0; c < 19; c++) {
@@ -313,14 +634,12 @@ public class AI extends core.player.AI {
                         else emptyCnt++;
                     }
                     if (valid && cnt >= 4 && emptyCnt <= 2) {
-                        for (int i = 0; i < emptyCnt; i++) spots.merge(empties[i], 1, Integer::sum);
+                        for (int i = 0; i < emptyCnt; i++) spots.add(empties[i], 1);
                     }
                 }
             }
         }
-        List<Integer> result = new ArrayList<>(spots.keySet());
-        result.sort((a, b) -> spots.get(b) - spots.get(a));
-        return result;
+        return spots.sortedByWeight();
     }
 
     // Double-threat search (optimized): candidate points only from 2/3-roads.
@@ -328,24 +647,24 @@ public class AI extends core.player.AI {
         if (depth <= 0) return null;
 
         // Collect potential points: empty cells from 2/3-roads.
-        List<Integer> potentialSpots = findPotentialSpots(color);
-        int n = Math.min(potentialSpots.size(), 15);
+        int[] potentialSpots = findPotentialSpots(color);
+        int n = Math.min(potentialSpots.length, 15);
 
         for (int i = 0; i < n; i++) {
             for (int j = i + 1; j < n; j++) {
-                Move m = new Move(potentialSpots.get(i), potentialSpots.get(j));
+                Move m = new Move(potentialSpots[i], potentialSpots[j]);
                 board.makeMove(m);
 
-                List<Integer> threats = getWinSpots(color);
-                if (threats.size() >= 3) {
+                int[] threats = getWinSpots(color);
+                if (threats.length >= 3) {
                     board.undo();
                     return m;
                 }
 
-                if (threats.size() >= 2 && depth > 1) {
+                if (threats.length >= 2 && depth > 1) {
                     // Continue search after defender responds.
-                    int b1 = threats.get(0);
-                    int b2 = threats.size() > 1 ? threats.get(1) : getBestFast(b1);
+                    int b1 = threats[0];
+                    int b2 = threats.length > 1 ? threats[1] : getBestFast(b1);
                     Move def = new Move(b1, b2);
                     board.makeMove(def);
 
@@ -362,27 +681,70 @@ public class AI extends core.player.AI {
         return null;
     }
 
-    private Move findDtssWinningMove(PieceColor attacker, int depth, long deadlineMs) {
+    private Move findDtssWinningMove(PieceColor attacker, int depth, Deadline deadline) {
         BoardPro bp = boardPro();
         if (bp == null) return null;
         if (board.whoseMove() != attacker) return null;
-        if (System.currentTimeMillis() > deadlineMs) return null;
+        if (deadline.reached()) return null;
+        stats.dtssRuns++;
+        EngineEvents.DtssRun event = new EngineEvents.DtssRun();
+        event.begin();
+        long nodesBefore = dtssNodeCounter;
 
         dtssAttacker = attacker;
         dtssLine = new ArrayList<>();
         dtssBestMove = null;
-        dtssDeadlineMs = deadlineMs;
+        dtssDeadline = deadline;
         dtssTimedOut = false;
+        dtssMinDepth = depth;
+
+        long key = bp.canonicalHash();
+        int t = bp.canonicalTransform();
+        int cached = forcedWinCache ? FORCED_WINS.probe(key, attacker, depth) : ForcedWinStore.UNKNOWN;
+        if (cached == ForcedWinStore.NO_WIN) {
+            stats.dtssCacheHits++;
+            stats.dtssFailed++;
+            EngineEvents.commitCached(event, attacker, depth, "CACHED_NO_WIN", FORCED_WINS, key);
+            return null;
+        }
+        if (cached != ForcedWinStore.UNKNOWN) {
+            Move m = Symmetry.unpackMove(cached, t);
+            if (board.legalMove(m)) {
+                stats.dtssCacheHits++;
+                stats.dtssProven++;
+                EngineEvents.commitCached(event, attacker, depth, "CACHED_WIN", FORCED_WINS, key);
+                return m;
+            }
+        }
 
-        boolean ok = dtssSearch(depth);
+        boolean ok = dtssSearch(depth, RelevanceZone.create());
+        String result;
+        if (ok && dtssBestMove != null) {
+            if (forcedWinCache) FORCED_WINS.storeWin(key, attacker, depth, Symmetry.packMove(dtssBestMove, t));
+            stats.dtssProven++;
+            result = "PROVEN";
+        } else if (dtssTimedOut) {
+            stats.dtssTimeouts++;
+            result = "TIMEOUT";
+        } else {
+            if (!ok && forcedWinCache) FORCED_WINS.storeNoWin(key, attacker, depth);
+            stats.dtssFailed++;
+            result = "FAILED";
+        }
+        EngineEvents.commit(event, attacker, depth, depth - dtssMinDepth, result, dtssNodeCounter - nodesBefore);
         return ok ? dtssBestMove : null;
     }
 
-    private boolean dtssSearch(int depth) {
-        if (System.currentTimeMillis() > dtssDeadlineMs) {
+    /**
+     * Proves a forced win for {@link #dtssAttacker} within {@code depth} plies. On success the cells the proof
+     * relied on are added to {@code zone} (see {@link RelevanceZone}).
+     */
+    private boolean dtssSearch(int depth, long[] zone) {
+        if (++dtssNodeCounter > dtssNodeLimit || dtssDeadline.expired()) {
             dtssTimedOut = true;
             return false;
         }
+        if (depth < dtssMinDepth) dtssMinDepth = depth;
 
         BoardPro bp = boardPro();
         if (bp == null) return false;
@@ -399,6 +761,10 @@ public class AI extends core.player.AI {
         PieceColor toMove = board.whoseMove();
         if (hasWinInOne(toMove)) {
             if (toMove != dtssAttacker) return false;
+            RoadSet[][] byCount = bp.getRoadTable().getRoadsByCount();
+            boolean black = dtssAttacker == PieceColor.BLACK;
+            RelevanceZone.addRoads(zone, black ? byCount[4][0] : byCount[0][4]);
+            RelevanceZone.addRoads(zone, black ? byCount[5][0] : byCount[0][5]);
             if (dtssLine.isEmpty()) {
                 dtssBestMove = findImmediateWinMove(dtssAttacker);
             } else {
@@ -426,13 +792,19 @@ public class AI extends core.player.AI {
             // Attacker turn: try any move that creates at least a double threat.
             List<Move> threats = generateDoubleThreatMoves(dtssAttacker);
             for (Move m : threats) {
+                long[] proof = RelevanceZone.create();
                 board.makeMove(m);
                 dtssLine.add(m);
-                boolean ok = dtssSearch(depth - 1);
+                boolean ok = dtssSearch(depth - 1, proof);
                 dtssLine.remove(dtssLine.size() - 1);
                 board.undo();
-                if (ok) return true;
-                if (System.currentTimeMillis() > dtssDeadlineMs) {
+                if (ok) {
+                    RelevanceZone.addAll(zone, proof);
+                    RelevanceZone.add(zone, m.index1());
+                    RelevanceZone.add(zone, m.index2());
+                    return true;
+                }
+                if (dtssDeadline.expired()) {
                     dtssTimedOut = true;
                     return false;
                 }
@@ -443,31 +815,56 @@ public class AI extends core.player.AI {
         // Defender turn: if threats are un-blockable, attacker wins.
         PieceColor defender = board.whoseMove();
         if (depth <= 0) return false;
+        RoadTable roadTable = bp.getRoadTable();
+        RoadSet[][] byCount = roadTable.getRoadsByCount();
+        RoadSet attackerFour = (dtssAttacker == PieceColor.BLACK) ? byCount[4][0] : byCount[0][4];
+        RoadSet attackerFive = (dtssAttacker == PieceColor.BLACK) ? byCount[5][0] : byCount[0][5];
         int threats = bp.countAllThreats(defender);
         if (threats >= 3) {
+            RelevanceZone.addRoads(zone, attackerFour);
+            RelevanceZone.addRoads(zone, attackerFive);
             if (!dtssLine.isEmpty()) dtssBestMove = dtssLine.get(0);
             return true;
         }
 
         // Enumerate all valid blocks; all must fail for defender for the attacker to have a forced win.
+        // A defense outside the zone of an earlier refutation is refuted by the same proof (relevance-zone pruning).
         List<Move> blocks = generateDoubleBlockMoves(defender);
+        ArrayList<long[]> refutations = new ArrayList<>();
         for (Move m : blocks) {
+            if (refutedByZone(refutations, roadTable, m)) continue;
+            long[] proof = RelevanceZone.create();
             board.makeMove(m);
             dtssLine.add(m);
-            boolean ok = dtssSearch(depth - 1);
+            boolean ok = dtssSearch(depth - 1, proof);
             dtssLine.remove(dtssLine.size() - 1);
             board.undo();
             if (!ok) return false;
-            if (System.currentTimeMillis() > dtssDeadlineMs) {
+            refutations.add(proof);
+            RelevanceZone.addAll(zone, proof);
+            RelevanceZone.add(zone, m.index1());
+            RelevanceZone.add(zone, m.index2());
+            if (dtssDeadline.expired()) {
                 dtssTimedOut = true;
                 return false;
             }
         }
         // No blocks -> attacker wins.
+        RelevanceZone.addRoads(zone, attackerFour);
+        RelevanceZone.addRoads(zone, attackerFive);
         if (!dtssLine.isEmpty()) dtssBestMove = dtssLine.get(0);
         return true;
     }
 
+    private boolean refutedByZone(List<long[]> refutations, RoadTable roadTable, Move defense) {
+        for (long[] proof : refutations) {
+            if (RelevanceZone.admits(proof, roadTable, dtssAttacker, defense.index1(), defense.index2())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static final class ScoredMove {
         private final Move move;
         private final int score;
@@ -483,37 +880,27 @@ public class AI extends core.player.AI {
         if (bp == null) return List.of();
 
         RoadTable roadTable = bp.getRoadTable();
-        List<Integer> points = collectDtssPotentialPoints(attacker, roadTable);
-        int n = Math.min(points.size(), DTSS_MAX_POINTS);
-        if (n < 2) return List.of();
+        int[] points = collectDtssPotentialPoints(attacker, roadTable);
+        // Only pairs that the road patterns prove forcing reach the board, for exact threat level and scoring.
+        int[] pairs = ThreatPairs.forcingPairs(roadTable, attacker, points, DTSS_MAX_POINTS);
+        if (pairs.length == 0) return List.of();
 
-        ArrayList<ScoredMove> scored = new ArrayList<>();
+        ArrayList<ScoredMove> scored = new ArrayList<>(pairs.length);
         PieceColor defender = attacker.opposite();
 
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                if (System.currentTimeMillis() > dtssDeadlineMs) {
-                    dtssTimedOut = true;
-                    break;
-                }
-                Move m = new Move(points.get(i), points.get(j));
-                board.makeMove(m);
-                // If the defender can win immediately, this is not a viable DTSS threat move.
-                if (hasWinInOne(defender)) {
-                    board.undo();
-                    continue;
-                }
-                int threatLevel = bp.countAllThreats(defender);
-                if (threatLevel >= 2) {
-                    int score = threatLevel * 1_000_000 + evalFromRoadTable(attacker, roadTable);
-                    scored.add(new ScoredMove(m, score));
-                }
-                board.undo();
-            }
-            if (System.currentTimeMillis() > dtssDeadlineMs) {
+        for (int pair : pairs) {
+            if (dtssDeadline.expired()) {
                 dtssTimedOut = true;
                 break;
             }
+            Move m = new Move(ThreatPairs.first(pair), ThreatPairs.second(pair));
+            board.makeMove(m);
+            int threatLevel = bp.countAllThreats(defender);
+            if (threatLevel >= 2) {
+                int score = threatLevel * 1_000_000 + evalFromRoadTable(attacker, roadTable);
+                scored.add(new ScoredMove(m, score));
+            }
+            board.undo();
         }
 
         scored.sort((a, b) -> b.score - a.score);
@@ -525,60 +912,21 @@ public class AI extends core.player.AI {
         return result;
     }
 
-    private List<Integer> collectDtssPotentialPoints(PieceColor attacker, RoadTable roadTable) {
+    private int[] collectDtssPotentialPoints(PieceColor attacker, RoadTable roadTable) {
         RoadSet[][] byCount = roadTable.getRoadsByCount();
         RoadSet two = (attacker == PieceColor.BLACK) ? byCount[2][0] : byCount[0][2];
         RoadSet three = (attacker == PieceColor.BLACK) ? byCount[3][0] : byCount[0][3];
 
-        HashMap<Integer, Integer> weights = new HashMap<>();
-
         // Score by how often a point appears on 3-roads/2-roads (order-independent, unlike HashSet iteration).
-        for (Road road : three) {
-            for (int i = 0; i < 6; i++) {
-                int pos = road.cellAt(i);
-                if (board.get(pos) != PieceColor.EMPTY) continue;
-                weights.merge(pos, 10, Integer::sum);
-            }
-        }
-        for (Road road : two) {
-            for (int i = 0; i < 6; i++) {
-                int pos = road.cellAt(i);
-                if (board.get(pos) != PieceColor.EMPTY) continue;
-                weights.merge(pos, 1, Integer::sum);
-            }
-        }
+        SpotBuffer weights = SpotBuffer.get().begin();
+        for (Road road : three) weights.addEmpties(road, 10);
+        for (Road road : two) weights.addEmpties(road, 1);
 
-        ArrayList<int[]> scored = new ArrayList<>(weights.size());
-        for (Map.Entry<Integer, Integer> e : weights.entrySet()) {
-            int pos = e.getKey();
-            int w = e.getValue();
-            int r = pos / 19;
-            int c = pos % 19;
-            int center = 18 - Math.abs(r - 9) - Math.abs(c - 9);
-            scored.add(new int[]{pos, w, center});
-        }
-
-        if (scored.isEmpty()) {
-            ArrayList<Integer> fallback = new ArrayList<>(getCandidates());
-            fallback.sort((a, b) -> {
-                int ar = a / 19, ac = a % 19;
-                int br = b / 19, bc = b % 19;
-                int ca = 18 - Math.abs(ar - 9) - Math.abs(ac - 9);
-                int cb = 18 - Math.abs(br - 9) - Math.abs(bc - 9);
-                if (cb != ca) return cb - ca;
-                return a - b;
-            });
-            return fallback;
-        }
-
-        scored.sort((a, b) -> {
-            if (b[1] != a[1]) return b[1] - a[1];
-            if (b[2] != a[2]) return b[2] - a[2];
-            return a[0] - b[0];
-        });
-        ArrayList<Integer> points = new ArrayList<>(scored.size());
-        for (int[] s : scored) points.add(s[0]);
-        return points;
+        if (weights.size() == 0) {
+            // No 2/3-roads yet: all candidates tie on weight, so this orders them by center then index.
+            for (int pos : getCandidates()) weights.add(pos, 0);
+        }
+        return weights.sortedByWeightThenCenter();
     }
 
     private List<Move> generateDoubleBlockMoves(PieceColor defender) {
@@ -598,7 +946,7 @@ public class AI extends core.player.AI {
         ArrayList<ScoredMove> scored = new ArrayList<>();
         for (int i = 0; i < blocks.size(); i++) {
             for (int j = i + 1; j < blocks.size(); j++) {
-                if (System.currentTimeMillis() > dtssDeadlineMs) {
+                if (dtssDeadline.expired()) {
                     dtssTimedOut = true;
                     break;
                 }
@@ -610,7 +958,7 @@ public class AI extends core.player.AI {
                 }
                 board.undo();
             }
-            if (System.currentTimeMillis() > dtssDeadlineMs) {
+            if (dtssDeadline.expired()) {
                 dtssTimedOut = true;
                 break;
             }
@@ -623,9 +971,8 @@ public class AI extends core.player.AI {
     }
 
     private void collectEmptyFromRoad(Road road, ArrayList<Integer> out, boolean[] visited) {
-        for (int i = 0; i < 6; i++) {
-            int pos = road.cellAt(i);
-            if (board.get(pos) != PieceColor.EMPTY) continue;
+        for (int m = RoadPattern.emptyMask(road.getPattern()); m != 0; m &= m - 1) {
+            int pos = road.cellAt(Integer.numberOfTrailingZeros(m));
             if (visited[pos]) continue;
             visited[pos] = true;
             out.add(pos);
@@ -633,9 +980,8 @@ public class AI extends core.player.AI {
     }
 
     private void collectEmptyFromRoad(Road road, ArrayList<Integer> out, boolean[] visited, int[] weights, int delta) {
-        for (int i = 0; i < 6; i++) {
-            int pos = road.cellAt(i);
-            if (board.get(pos) != PieceColor.EMPTY) continue;
+        for (int m = RoadPattern.emptyMask(road.getPattern()); m != 0; m &= m - 1) {
+            int pos = road.cellAt(Integer.numberOfTrailingZeros(m));
             weights[pos] += delta;
             if (visited[pos]) continue;
             visited[pos] = true;
@@ -662,7 +1008,7 @@ public class AI extends core.player.AI {
         return blocks;
     }
 
-    private List<Move> generateImmediateBlocks(PieceColor defender, int threatLevel, long deadlineMs) {
+    private List<Move> generateImmediateBlocks(PieceColor defender, int threatLevel, Deadline deadline) {
         BoardPro bp = boardPro();
         if (bp == null) return List.of();
         RoadTable roadTable = bp.getRoadTable();
@@ -675,8 +1021,8 @@ public class AI extends core.player.AI {
         ArrayList<Integer> blocks = collectThreatBlockPointsSorted(oppFour, oppFive, weights);
         if (blocks.isEmpty()) return List.of();
 
-        List<Integer> seconds = findPotentialSpots(defender);
-        int secondsLimit = Math.min(seconds.size(), 14);
+        int[] seconds = findPotentialSpots(defender);
+        int secondsLimit = Math.min(seconds.length, 14);
 
         ArrayList<ScoredMove> scored = new ArrayList<>();
 
@@ -687,8 +1033,8 @@ public class AI extends core.player.AI {
             roadTable.applyStone(p1, defender);
             int added = 0;
             for (int i = 0; i < secondsLimit; i++) {
-                if (System.currentTimeMillis() > deadlineMs) break;
-                int p2 = seconds.get(i);
+                if (deadline.expired()) break;
+                int p2 = seconds[i];
                 if (p2 == p1) continue;
                 if (board.get(p2) != PieceColor.EMPTY) continue;
 
@@ -705,7 +1051,7 @@ public class AI extends core.player.AI {
             ArrayList<Integer> singleBlocks = new ArrayList<>();
             int scanLimit = Math.min(blocks.size(), 24);
             for (int i = 0; i < scanLimit; i++) {
-                if (System.currentTimeMillis() > deadlineMs) break;
+                if (deadline.expired()) break;
                 int p = blocks.get(i);
                 if (board.get(p) != PieceColor.EMPTY) continue;
                 roadTable.applyStone(p, defender);
@@ -716,13 +1062,13 @@ public class AI extends core.player.AI {
 
             int blockLimit = Math.min(singleBlocks.size(), 8);
             for (int i = 0; i < blockLimit; i++) {
-                if (System.currentTimeMillis() > deadlineMs) break;
+                if (deadline.expired()) break;
                 int p1 = singleBlocks.get(i);
                 roadTable.applyStone(p1, defender);
                 int added = 0;
                 for (int j = 0; j < secondsLimit; j++) {
-                    if (System.currentTimeMillis() > deadlineMs) break;
-                    int p2 = seconds.get(j);
+                    if (deadline.expired()) break;
+                    int p2 = seconds[j];
                     if (p2 == p1) continue;
                     if (board.get(p2) != PieceColor.EMPTY) continue;
 
@@ -739,13 +1085,13 @@ public class AI extends core.player.AI {
         } else {
             int pointLimit = Math.min(blocks.size(), 26);
             for (int i = 0; i < pointLimit; i++) {
-                if (System.currentTimeMillis() > deadlineMs) break;
+                if (deadline.expired()) break;
                 int p1 = blocks.get(i);
                 if (board.get(p1) != PieceColor.EMPTY) continue;
 
                 roadTable.applyStone(p1, defender);
                 for (int j = i + 1; j < pointLimit; j++) {
-                    if (System.currentTimeMillis() > deadlineMs) break;
+                    if (deadline.expired()) break;
                     int p2 = blocks.get(j);
                     if (board.get(p2) != PieceColor.EMPTY) continue;
 
@@ -767,7 +1113,7 @@ public class AI extends core.player.AI {
         return result;
     }
 
-    private Move findBestImmediateBlock(PieceColor defender, long deadlineMs) {
+    private Move findBestImmediateBlock(PieceColor defender, Deadline deadline) {
         BoardPro bp = boardPro();
         if (bp == null) return null;
 
@@ -785,13 +1131,13 @@ public class AI extends core.player.AI {
             Move bestMove = null;
             int bestScore = -INF;
             int tried = 0;
-            List<Integer> seconds = findPotentialSpots(defender);
-            int secondsLimit = Math.min(seconds.size(), 24);
+            int[] seconds = findPotentialSpots(defender);
+            int secondsLimit = Math.min(seconds.length, 24);
 
             roadTable.applyStone(p1, defender);
             for (int i = 0; i < secondsLimit; i++) {
-                if (System.currentTimeMillis() > deadlineMs) break;
-                int p2 = seconds.get(i);
+                if (deadline.expired()) break;
+                int p2 = seconds[i];
                 if (p2 == p1) continue;
                 if (board.get(p2) != PieceColor.EMPTY) continue;
 
@@ -810,7 +1156,7 @@ public class AI extends core.player.AI {
             return bestMove != null ? bestMove : new Move(p1, getBest(p1, defender));
         }
 
-        Move bestSingle = findBestSingleThreatDefense(defender, blocks, roadTable, oppFour, oppFive, deadlineMs);
+        Move bestSingle = findBestSingleThreatDefense(defender, blocks, roadTable, oppFour, oppFive, deadline);
         if (bestSingle != null) return bestSingle;
 
         Move bestSolved = null;
@@ -821,13 +1167,13 @@ public class AI extends core.player.AI {
 
         int pointLimit = Math.min(blocks.size(), 34);
         for (int i = 0; i < pointLimit; i++) {
-            if (System.currentTimeMillis() > deadlineMs) break;
+            if (deadline.expired()) break;
             int p1 = blocks.get(i);
             if (board.get(p1) != PieceColor.EMPTY) continue;
 
             roadTable.applyStone(p1, defender);
             for (int j = i + 1; j < pointLimit; j++) {
-                if (System.currentTimeMillis() > deadlineMs) break;
+                if (deadline.expired()) break;
                 int p2 = blocks.get(j);
                 if (board.get(p2) != PieceColor.EMPTY) continue;
 
@@ -863,14 +1209,14 @@ public class AI extends core.player.AI {
             RoadTable roadTable,
             RoadSet oppFour,
             RoadSet oppFive,
-            long deadlineMs
+            Deadline deadline
     ) {
         BoardPro bp = boardPro();
         if (bp == null) return null;
 
         ArrayList<Integer> singleBlocks = new ArrayList<>();
         for (int p : blocks) {
-            if (System.currentTimeMillis() > deadlineMs) break;
+            if (deadline.expired()) break;
             if (board.get(p) != PieceColor.EMPTY) continue;
             roadTable.applyStone(p, defender);
             boolean solved = oppFour.isEmpty() && oppFive.isEmpty();
@@ -879,8 +1225,8 @@ public class AI extends core.player.AI {
         }
         if (singleBlocks.isEmpty()) return null;
 
-        List<Integer> seconds = findPotentialSpots(defender);
-        int secondsLimit = Math.min(seconds.size(), 18);
+        int[] seconds = findPotentialSpots(defender);
+        int secondsLimit = Math.min(seconds.length, 18);
 
         Move bestMove = null;
         int bestScore = -INF;
@@ -888,8 +1234,8 @@ public class AI extends core.player.AI {
             int tried = 0;
             roadTable.applyStone(p1, defender);
             for (int i = 0; i < secondsLimit; i++) {
-                if (System.currentTimeMillis() > deadlineMs) break;
-                int p2 = seconds.get(i);
+                if (deadline.expired()) break;
+                int p2 = seconds[i];
                 if (p2 == p1) continue;
                 if (board.get(p2) != PieceColor.EMPTY) continue;
                 roadTable.applyStone(p2, defender);
@@ -907,36 +1253,59 @@ public class AI extends core.player.AI {
         return bestMove;
     }
 
-    private Move findSafeMoveAgainstDtss(Move preferred, PieceColor me, PieceColor opp, long deadlineMs) {
-        if (System.currentTimeMillis() > deadlineMs) return null;
+    private Move findSafeMoveAgainstDtss(Move preferred, PieceColor me, PieceColor opp, Deadline deadline) {
+        if (deadline.reached()) return null;
         if (preferred == null) return null;
         BoardPro bp = boardPro();
         if (bp == null) return null;
 
         // Start by checking the preferred move, then try a few strong alternatives.
-        ArrayList<Move> candidates = new ArrayList<>(genMovesRoot(me));
+        EngineEvents.SafetyCheck event = new EngineEvents.SafetyCheck();
+        event.begin();
+        ArrayList<Move> candidates = new ArrayList<>(rootMoves(me));
         candidates.sort((a, b) -> a.equals(preferred) ? -1 : b.equals(preferred) ? 1 : 0);
 
         int checked = 0;
+        int tested = 0;
+        int timeouts = 0;
+        Move safe = null;
         for (Move m : candidates) {
-            if (System.currentTimeMillis() > deadlineMs) break;
+            if (deadline.reached()) break;
             if (checked++ > 12) break;
 
             board.makeMove(m);
-            long perCheckDeadline = Math.min(deadlineMs, System.currentTimeMillis() + 250);
-            Move oppWin = findDtssWinningMove(opp, 7, perCheckDeadline);
+            // Spend more on moves whose usual reply by this opponent already threatens us.
+            boolean dangerous = false;
+            Move likely = likelyReply(bp);
+            if (likely != null) {
+                board.makeMove(likely);
+                dangerous = bp.countAllThreats(me) > 0;
+                board.undo();
+            }
+            dtssNodeLimit = saturatedAdd(dtssNodeCounter, (dangerous ? nodeLimit / 16 : nodeLimit / 32));
+            Move oppWin = dangerous
+                    ? findDtssWinningMove(opp, 9, subBudget(deadline, 500))
+                    : findDtssWinningMove(opp, 7, subBudget(deadline, 250));
             boolean timedOut = dtssTimedOut;
             board.undo();
+            tested++;
+            if (timedOut) timeouts++;
 
             // If we can't finish the opponent check in time, be conservative and treat as unsafe.
             if (timedOut) continue;
-            if (oppWin == null) return m;
+            if (oppWin == null) {
+                safe = m;
+                break;
+            }
         }
-        return null;
+        stats.safetyChecks += tested;
+        stats.safetyTimeouts += timeouts;
+        EngineEvents.commit(event, tested, timeouts, safe);
+        return safe;
     }
 
     // Collect potential points: empty cells from 2/3-roads.
-    private List<Integer> findPotentialSpots(PieceColor color) {
+    private int[] findPotentialSpots(PieceColor color) {
         BoardPro bp = boardPro();
         if (bp != null) {
             return findPotentialSpotsFromRoadTable(color, bp.getRoadTable());
@@ -944,39 +1313,25 @@ public class AI extends core.player.AI {
         return findPotentialSpotsByScan(color);
     }
 
-    private List<Integer> findPotentialSpotsFromRoadTable(PieceColor color, RoadTable roadTable) {
-        Map<Integer, Integer> spots = new HashMap<>();
+    private int[] findPotentialSpotsFromRoadTable(PieceColor color, RoadTable roadTable) {
         RoadSet[][] byCount = roadTable.getRoadsByCount();
         RoadSet two = (color == PieceColor.BLACK) ? byCount[2][0] : byCount[0][2];
         RoadSet three = (color == PieceColor.BLACK) ? byCount[3][0] : byCount[0][3];
 
-        addPotentialEmptySpotsFromRoadSet(spots, two, 1);
-        addPotentialEmptySpotsFromRoadSet(spots, three, 10);
+        SpotBuffer spots = SpotBuffer.get().begin();
+        for (Road road : two) spots.addEmpties(road, 1);
+        for (Road road : three) spots.addEmpties(road, 10);
 
-        if (spots.isEmpty()) {
+        if (spots.size() == 0) {
             for (int pos : getCandidates()) {
-                spots.put(pos, 1);
+                spots.add(pos, 1);
             }
         }
-
-        List<Integer> result = new ArrayList<>(spots.keySet());
-        result.sort((a, b) -> spots.get(b) - spots.get(a));
-        return result;
+        return spots.sortedByWeight();
     }
 
-    private void addPotentialEmptySpotsFromRoadSet(Map<Integer, Integer> spots, RoadSet roads, int weight) {
-        for (Road road : roads) {
-            for (int i = 0; i < 6; i++) {
-                int pos = road.cellAt(i);
-                if (board.get(pos) == PieceColor.EMPTY) {
-                    spots.merge(pos, weight, Integer::sum);
-                }
-            }
-        }
-    }
-
-    private List<Integer> findPotentialSpotsByScan(PieceColor color) {
-        Map<Integer, Integer> spots = new HashMap<>();
+    private int[] findPotentialSpotsByScan(PieceColor color) {
+        SpotBuffer spots = SpotBuffer.get().begin();
         PieceColor opp = color.opposite();
 
         for (int r = 0; r < 19; r++) {
@@ -998,16 +1353,14 @@ public class AI extends core.player.AI {
                     if (valid && (cnt == 2 || cnt == 3) && emptyCnt <= 4) {
                         int weight = (cnt == 3) ? 10 : 1;
                         for (int i = 0; i < emptyCnt; i++) {
-                            spots.merge(empties[i], weight, Integer::sum);
+                            spots.add(empties[i], weight);
                         }
                     }
                 }
             }
         }
 
-        List<Integer> result = new ArrayList<>(spots.keySet());
-        result.sort((a, b) -> spots.get(b) - spots.get(a));
-        return result;
+        return spots.sortedByWeight();
     }
 
     // Find best block move.
@@ -1068,10 +1421,10 @@ public class AI extends core.player.AI {
             for (int j = i + 1; j < n; j++) {
                 Move m = new Move(oppCands.get(i)[0], oppCands.get(j)[0]);
                 board.makeMove(m);
-                List<Integer> threats = getWinSpots(opp);
+                int[] threats = getWinSpots(opp);
                 board.undo();
 
-                if (threats.size() >= 3) {
+                if (threats.length >= 3) {
                     dangerSpots.add(oppCands.get(i)[0]);
                     dangerSpots.add(oppCands.get(j)[0]);
                 }
@@ -1099,6 +1452,15 @@ public class AI extends core.player.AI {
 
     private int evalSpotFor(int pos, PieceColor color) {
         int r = pos / 19, c = pos % 19;
+        BoardPro bp = boardPro();
+        if (bp != null) {
+            int score = 18 - Math.abs(r - 9) - Math.abs(c - 9);
+            for (Road road : bp.getRoadTable().getRoadsThroughPos(pos)) {
+                score += RoadPattern.attackScore(road.getPattern(), color);
+            }
+            return score;
+        }
+
         int score = 0;
         PieceColor opp = color.opposite();
 
@@ -1127,14 +1489,23 @@ public class AI extends core.player.AI {
 
     // Iterative deepening.
     private Move iterativeDeepening(PieceColor me) {
-        List<Move> moves = genMovesRoot(me);
+        // A precomputed opening ordering already reflects a deeper search, so the shallow iterations are skipped.
+        OpeningOrdering.Entry ordered = openingOrdering();
+        List<Move> moves = (ordered != null) ? new ArrayList<>(ordered.moves) : genMovesRoot(me);
         if (moves.isEmpty()) return new Move(180, 181);
+        int startDepth = (ordered != null) ? ordered.startDepth : 2;
 
         Move best = moves.get(0);
+        Deadline iterationCutoff = Deadline.at(startNanos, timeLimitMs - timeLimitMs / ITERATION_RESERVE);
+        Deadline moveCutoff = Deadline.at(startNanos, timeLimitMs - timeLimitMs / 16);
 
-        for (int depth = 2; depth <= 10; depth += 2) {
-            if (System.currentTimeMillis() - startTime > TIME_LIMIT - 1000) break;
+        for (int depth = startDepth; depth <= 10; depth += 2) {
+            if (iterationCutoff.reached()) break;
+            if (nodeCounter >= nodeLimit) break;
 
+            EngineEvents.SearchIteration event = new EngineEvents.SearchIteration();
+            event.begin();
+            long nodesBefore = nodeCounter;
             int alpha = -INF, beta = INF;
             Move iterBest = moves.get(0);
             int iterBestScore = -INF;
@@ -1150,48 +1521,54 @@ public class AI extends core.player.AI {
 
             boolean useParallel =
                     ROOT_POOL != null
+                            && rootParallel
                             && moves.size() >= 8
-                            && (hardDeadlineMs - System.currentTimeMillis() > 900);
+                            && hardDeadline.remainingMs() > 900;
 
             if (useParallel) {
                 BoardPro baseSnapshot = copyBoardPro();
                 long baseHash = hash;
                 int baselineAlpha = alpha;
 
-                long remainingMs = hardDeadlineMs - System.currentTimeMillis();
+                long remainingMs = hardDeadline.remainingMs();
                 long scoutBudgetMs = Math.min(remainingMs - 250, 750);
                 int limit = rootParallelMoveLimit(depth, moves.size());
 
                 if (scoutBudgetMs > 0 && limit > 1) {
                     final int searchDepth = depth;
-                    ArrayList<Callable<ScoredMove>> tasks = new ArrayList<>();
+                    // Workers poll forks of this deadline; cancelling it stops stragglers at their next check.
+                    Deadline scout = hardDeadline.within(scoutBudgetMs);
+                    long scoutStart = System.nanoTime();
+                    ArrayList<Future<ScoredMove>> futures = new ArrayList<>();
                     for (int i = 1; i < limit; i++) {
                         Move m = moves.get(i);
-                        tasks.add(
-                                () ->
-                                        scoutRootMove(
-                                                baseSnapshot, baseHash, m, searchDepth, baselineAlpha));
+                        futures.add(
+                                ROOT_POOL.submit(
+                                        () ->
+                                                scoutRootMove(
+                                                        baseSnapshot, baseHash, m, searchDepth, baselineAlpha, scout)));
                     }
 
                     ArrayList<ScoredMove> results = new ArrayList<>();
                     try {
-                        List<Future<ScoredMove>> futures =
-                                ROOT_POOL.invokeAll(tasks, scoutBudgetMs, TimeUnit.MILLISECONDS);
                         for (Future<ScoredMove> f : futures) {
-                            if (f.isCancelled()) continue;
                             try {
-                                ScoredMove sm = f.get();
+                                ScoredMove sm = f.get(scout.remainingMs(), TimeUnit.MILLISECONDS);
                                 if (sm != null) results.add(sm);
-                            } catch (ExecutionException ignored) {
+                            } catch (ExecutionException | TimeoutException ignored) {
                             }
                         }
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
+                    } finally {
+                        scout.cancel();
+                        stats.scoutTasks += futures.size();
+                        stats.scoutCapacityNanos += ROOT_PARALLEL_THREADS * (System.nanoTime() - scoutStart);
                     }
 
                     results.sort((a, b) -> b.score - a.score);
                     for (ScoredMove sm : results) {
-                        if (System.currentTimeMillis() > hardDeadlineMs - 120) break;
+                        if (hardDeadline.remainingMs() < 120) break;
                         if (sm.score <= alpha) break;
 
                         Move m = sm.move;
@@ -1210,9 +1587,9 @@ public class AI extends core.player.AI {
                 // If there is still time, finish scanning remaining moves sequentially (cheap for shallow depths).
                 if (limit < moves.size()
                         && depth <= 6
-                        && (hardDeadlineMs - System.currentTimeMillis() > 900)) {
+                        && hardDeadline.remainingMs() > 900) {
                     for (int i = limit; i < moves.size(); i++) {
-                        if (System.currentTimeMillis() - startTime > TIME_LIMIT - 500) break;
+                        if (moveCutoff.reached()) break;
 
                         Move m = moves.get(i);
                         makeMove(m);
@@ -1231,7 +1608,7 @@ public class AI extends core.player.AI {
                 }
             } else {
                 for (int i = 1; i < moves.size(); i++) {
-                    if (System.currentTimeMillis() - startTime > TIME_LIMIT - 500) break;
+                    if (moveCutoff.reached()) break;
 
                     Move m = moves.get(i);
                     makeMove(m);
@@ -1250,6 +1627,9 @@ public class AI extends core.player.AI {
             }
 
             best = iterBest;
+            lastScore = iterBestScore;
+            lastDepth = depth;
+            EngineEvents.commit(event, depth, iterBestScore, nodeCounter - nodesBefore, best);
 
             // Resort
             final Move fb = best;
@@ -1260,31 +1640,87 @@ public class AI extends core.player.AI {
 
     private static int rootParallelMoveLimit(int depth, int movesSize) {
         int cap;
-        if (depth <= 4) cap = 24;
-        else if (depth <= 6) cap = 20;
-        else if (depth <= 8) cap = 16;
-        else cap = 12;
+        if (depth <= 4) cap = PARALLEL_MOVE_CAP;
+        else if (depth <= 6) cap = PARALLEL_MOVE_CAP - 4;
+        else if (depth <= 8) cap = PARALLEL_MOVE_CAP - 8;
+        else cap = PARALLEL_MOVE_CAP - 12;
         return Math.min(movesSize, cap);
     }
 
     private ScoredMove scoutRootMove(
-            BoardPro baseSnapshot, long baseHash, Move move, int depth, int alpha) {
-        // Clear stale interrupts from previous timed-out tasks on this worker thread.
-        Thread.interrupted();
+            BoardPro baseSnapshot, long baseHash, Move move, int depth, int alpha, Deadline scout) {
+        if (scout.reached()) return null;
+        long t0 = System.nanoTime();
 
         AI worker = ROOT_WORKER.get();
         worker.board = new BoardPro(baseSnapshot);
         worker.hash = baseHash;
         worker.hashSynced = true;
         worker.startTime = startTime;
-        worker.hardDeadlineMs = hardDeadlineMs;
+        worker.startNanos = startNanos;
+        worker.hardDeadline = scout.fork();
+        worker.timeLimitMs = timeLimitMs;
         worker.nodeCounter = 0;
+        worker.stats.reset();
         worker.threatCacheHash = -1;
+        worker.opponentModel = opponentModel;
+        worker.modelColor = modelColor;
 
         worker.makeMove(move);
         int score = -worker.negamax(depth - 1, -alpha - 1, -alpha);
         worker.undoMove(move);
-        return new ScoredMove(move, score);
+        SearchStats.recordScout(worker.stats, worker.nodeCounter, System.nanoTime() - t0);
+        // A search cut short by the deadline returns a static eval, not a score.
+        return worker.hardDeadline.reached() ? null : new ScoredMove(move, score);
+    }
+
+    private List<Move> rootMoves(PieceColor me) {
+        OpeningOrdering.Entry ordered = openingOrdering();
+        return (ordered != null) ? ordered.moves : genMovesRoot(me);
+    }
+
+    // Precomputed ordering for the first plies (stage <= 3, where genMovesRoot is widest), if the table has one.
+    private OpeningOrdering.Entry openingOrdering() {
+        BoardPro bp = boardPro();
+        if (bp == null || board.getMoveList().size() > 3) return null;
+        return OpeningOrdering.get().probe(bp);
+    }
+
+    /**
+     * Offline ranking of the root candidates of {@code position} by a full-window search of each to {@code depth}.
+     * Used by {@link OpeningOrderingBuilder}; the board is left unchanged. Moves not searched before
+     * {@code timeLimitMs} runs out keep their generation order after the searched ones.
+     */
+    List<Move> rankRootMoves(BoardPro position, int depth, long timeLimitMs) {
+        board = position;
+        hash = 0;
+        hashSynced = false;
+        threatCacheHash = -1;
+        syncHashIfNeeded();
+        startTime = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+        hardDeadline = Deadline.at(startNanos, timeLimitMs);
+        nodeCounter = 0;
+        opponentModel = null;
+
+        try {
+            List<Move> moves = genMovesRoot(board.whoseMove());
+            ArrayList<ScoredMove> scored = new ArrayList<>(moves.size());
+            for (Move m : moves) {
+                makeMove(m);
+                int score = -negamax(depth - 1, -INF, INF);
+                undoMove(m);
+                if (hardDeadline.reached()) break;
+                scored.add(new ScoredMove(m, score));
+            }
+            scored.sort((a, b) -> b.score - a.score);
+            ArrayList<Move> ranked = new ArrayList<>(moves.size());
+            for (ScoredMove sm : scored) ranked.add(sm.move);
+            for (int i = scored.size(); i < moves.size(); i++) ranked.add(moves.get(i));
+            return ranked;
+        } finally {
+            hardDeadline = Deadline.never();
+        }
     }
 
     private List<Move> genMovesRoot(PieceColor me) {
@@ -1303,7 +1739,7 @@ public class AI extends core.player.AI {
         points.sort((a, b) -> b[1] - a[1]);
 
         int stage = board.getMoveList().size();
-        int topPoints = (stage <= 3) ? 30 : 24;
+        int topPoints = (stage <= 3) ? ROOT_TOP_POINTS_OPENING : ROOT_TOP_POINTS;
         int top = Math.min(points.size(), topPoints);
         if (top < 2) return genMoves(me);
 
@@ -1330,7 +1766,7 @@ public class AI extends core.player.AI {
 
         scored.sort((a, b) -> b.score - a.score);
 
-        int moveLimit = (stage <= 3) ? 60 : 35;
+        int moveLimit = (stage <= 3) ? ROOT_MOVE_LIMIT_OPENING : ROOT_MOVE_LIMIT;
         int limit = Math.min(scored.size(), moveLimit);
         ArrayList<Move> moves = new ArrayList<>(limit);
         for (int i = 0; i < limit; i++) moves.add(scored.get(i).move);
@@ -1341,10 +1777,9 @@ public class AI extends core.player.AI {
         PieceColor me = board.whoseMove();
         PieceColor opp = me.opposite();
 
-        if ((++nodeCounter & 1023) == 0) {
-            if (System.currentTimeMillis() > hardDeadlineMs || Thread.currentThread().isInterrupted()) {
-                return eval(me);
-            }
+        // Checked at every node so that, once the budget is gone, the whole remaining tree unwinds at once.
+        if (++nodeCounter >= nodeLimit || hardDeadline.expired()) {
+            return eval(me);
         }
 
         // Terminal: previous move already ended the game.
@@ -1363,7 +1798,10 @@ public class AI extends core.player.AI {
         if (depth <= 0) return eval(me);
 
         // Transposition table.
-        int[] cached = tt.get(hash);
+        long ttKey = ttKey(bp);
+        int[] cached = tt.get(ttKey);
+        stats.ttProbes++;
+        if (cached != null) stats.ttHits++;
         if (cached != null && cached[0] >= depth) {
             if (cached[2] == 0) return cached[1];
             if (cached[2] == 1 && cached[1] >= beta) return cached[1];
@@ -1373,27 +1811,32 @@ public class AI extends core.player.AI {
         // Must defend against immediate 4/5-road threats.
         if (bp != null) {
             if (threatLevel > 0) {
-                List<Move> blocks = generateImmediateBlocks(me, threatLevel, System.currentTimeMillis() + 25);
+                List<Move> blocks = generateImmediateBlocks(me, threatLevel, subBudget(hardDeadline, 25));
                 if (blocks.isEmpty()) return -INF + (20 - depth);
 
                 int bestScore = -INF;
                 int origAlpha = alpha;
-                for (Move m : blocks) {
+                for (int i = 0; i < blocks.size(); i++) {
+                    Move m = blocks.get(i);
                     makeMove(m);
                     int score = -negamax(depth - 1, -beta, -alpha);
                     undoMove(m);
                     bestScore = Math.max(bestScore, score);
                     alpha = Math.max(alpha, score);
-                    if (alpha >= beta) break;
+                    if (alpha >= beta) {
+                        cutoff(i);
+                        break;
+                    }
                 }
                 int flag = (bestScore <= origAlpha) ? -1 : (bestScore >= beta) ? 1 : 0;
-                tt.put(hash, new int[]{depth, bestScore, flag});
+                ttStore(ttKey, depth, bestScore, flag);
                 return bestScore;
             }
         }
 
         List<Move> moves = genMoves(me);
         if (moves.isEmpty()) return eval(me);
+        if (opponentModel != null && me == modelColor && depth >= 2) moves = preferObservedReplies(moves, bp);
 
         int origAlpha = alpha;
         int bestScore = -INF;
@@ -1414,12 +1857,25 @@ public class AI extends core.player.AI {
 
             bestScore = Math.max(bestScore, score);
             alpha = Math.max(alpha, score);
-            if (alpha >= beta) break;
+            if (alpha >= beta) {
+                cutoff(i);
+                break;
+            }
         }
 
         int flag = (bestScore <= origAlpha) ? -1 : (bestScore >= beta) ? 1 : 0;
-        tt.put(hash, new int[]{depth, bestScore, flag});
+        ttStore(ttKey, depth, bestScore, flag);
         return bestScore;
+    }
+
+    private void ttStore(long key, int depth, int score, int flag) {
+        stats.ttStores++;
+        if (tt.put(key, new int[]{depth, score, flag}) != null) stats.ttReplaces++;
+    }
+
+    private void cutoff(int moveIndex) {
+        stats.cutoffs++;
+        if (moveIndex == 0) stats.firstMoveCutoffs++;
     }
 
     private List<Move> genMoves(PieceColor me) {
@@ -1476,8 +1932,8 @@ public class AI extends core.player.AI {
 
         // Prioritize threat points.
         Set<Integer> priority = new HashSet<>();
-        priority.addAll(getWinSpots(me));
-        priority.addAll(getWinSpots(opp));
+        for (int pos : getWinSpots(me)) priority.add(pos);
+        for (int pos : getWinSpots(opp)) priority.add(pos);
 
         List<int[]> spots = new ArrayList<>();
         for (int pos : getCandidates()) {
@@ -1547,6 +2003,15 @@ public class AI extends core.player.AI {
 
     private int evalSpot(int pos, PieceColor me) {
         int r = pos / 19, c = pos % 19;
+        BoardPro bp = boardPro();
+        if (bp != null) {
+            int score = 18 - Math.abs(r - 9) - Math.abs(c - 9);
+            for (Road road : bp.getRoadTable().getRoadsThroughPos(pos)) {
+                score += RoadPattern.spotScore(road.getPattern(), me);
+            }
+            return score;
+        }
+
         int score = 0;
         PieceColor opp = me.opposite();
 
@@ -1574,7 +2039,9 @@ public class AI extends core.player.AI {
     private int eval(PieceColor me) {
         BoardPro bp = boardPro();
         if (bp != null) {
-            return evalFromRoadTable(me, bp.getRoadTable());
+            int score = evalFromRoadTable(me, bp.getRoadTable());
+            Nnue.Accumulator nnue = bp.getNnue();
+            return (nnue != null) ? score + nnue.evaluate(me) : score;
         }
 
         int myScore = 0, oppScore = 0;
@@ -1644,6 +2111,15 @@ public class AI extends core.player.AI {
         return fallback >= 0 ? fallback : (exclude + 1) % 361;
     }
 
+    /**
+     * TT key for the current position. During the opening, symmetric positions are common and share one entry
+     * through the canonical hash; later the cheaper incremental Zobrist hash is used.
+     */
+    private long ttKey(BoardPro bp) {
+        if (bp != null && board.getMoveList().size() <= SYMMETRY_TT_PLIES) return bp.canonicalHash();
+        return hash;
+    }
+
     private void makeMove(Move m) {
         board.makeMove(m);
         updateHash(m);
@@ -1673,6 +2149,77 @@ public class AI extends core.player.AI {
         hashSynced = true;
     }
 
+    /**
+     * Model of the opponent in {@code game}: {@code g06.opponent} if set, else the other player of the game's
+     * referee, found reflectively since {@link Game} does not expose its players. Null if neither is known or the
+     * opponent has never been observed, in which case searches are not biased.
+     */
+    private OpponentModel.Snapshot opponentModelFor(Game game) {
+        String name = System.getProperty("g06.opponent", "").trim();
+        if (name.isEmpty()) {
+            Player opponent = opponentIn(game);
+            name = (opponent != null) ? opponent.name() : null;
+        }
+        OpponentModel model = OpponentModel.find(name);
+        return (model != null) ? model.snapshot() : null;
+    }
+
+    private Player opponentIn(Game game) {
+        if (GAME_REFEREE == null || REFEREE_FIRST == null || REFEREE_SECOND == null) return null;
+        try {
+            Object referee = GAME_REFEREE.get(game);
+            Player first = (Player) REFEREE_FIRST.get(referee);
+            Player second = (Player) REFEREE_SECOND.get(referee);
+            if (first == this) return second;
+            if (second == this) return first;
+            return null;
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Field field(Class<?> owner, String name) {
+        try {
+            Field f = owner.getDeclaredField(name);
+            f.setAccessible(true);
+            return f;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Moves the opponent has actually played here go first, in order of frequency.
+    private List<Move> preferObservedReplies(List<Move> moves, BoardPro bp) {
+        if (bp == null) return moves;
+        long key = bp.canonicalHash();
+        int observed = opponentModel.replies(key);
+        if (observed == 0) return moves;
+        int t = bp.canonicalTransform();
+        ArrayList<Move> ordered = new ArrayList<>(moves.size() + observed);
+        for (int i = 0; i < observed; i++) {
+            Move m = Symmetry.unpackMove(opponentModel.reply(key, i), t);
+            if (board.legalMove(m)) ordered.add(m);
+        }
+        int front = ordered.size();
+        if (front == 0) return moves;
+        for (Move m : moves) {
+            boolean seen = false;
+            for (int i = 0; i < front && !seen; i++) seen = sameUnordered(m, ordered.get(i));
+            if (!seen) ordered.add(m);
+        }
+        return ordered;
+    }
+
+    // The opponent's reply in this position if it has been seen at least twice and chosen most of the time.
+    private Move likelyReply(BoardPro bp) {
+        if (opponentModel == null || bp == null) return null;
+        long key = bp.canonicalHash();
+        int seen = opponentModel.observations(key);
+        if (seen < 2 || opponentModel.topCount(key) * 2 < seen) return null;
+        Move m = Symmetry.unpackMove(opponentModel.reply(key, 0), bp.canonicalTransform());
+        return board.legalMove(m) ? m : null;
+    }
+
     private static boolean sameUnordered(Move a, Move b) {
         if (a == null || b == null) return false;
         int a1 = a.index1(), a2 = a.index2();
@@ -1704,6 +2251,12 @@ public class AI extends core.player.AI {
         }
     }
 
+    private Move bookMove() {
+        if (board == null || BOOK.isEmpty()) return null;
+        if (board.getMoveList().size() >= BOOK_MAX_PLIES) return null;
+        return BOOK.probe(board);
+    }
+
     private long computeHashFromBoard() {
         long h = 0;
         for (int pos = 0; pos < 361; pos++) {
@@ -1733,9 +2286,20 @@ public class AI extends core.player.AI {
     @Override
     public String name() { return "G06"; }
 
+    @Override
+    public void addGameResult(GameResult result) {
+        super.addGameResult(result);
+        FORCED_WINS.flushAsync();
+        OpponentModel.commit(result.getOpponent(this).name(), observedReplies);
+        observedReplies.clear();
+    }
+
     @Override
     public void playGame(Game game) {
         super.playGame(game);
+        gameModel = opponentModelFor(game);
+        observedReplies.clear();
+        moveReports.clear();
         board = new BoardPro();
         hash = 0;
         hashSynced = false;
@@ -1743,6 +2307,11 @@ public class AI extends core.player.AI {
         tt.clear();
     }
 
+    private static long saturatedAdd(long a, long b) {
+        long r = a + b;
+        return (r < a) ? Long.MAX_VALUE : r;
+    }
+
     private static int parseIntProperty(String key, int defaultValue, int min, int max) {
         String raw = System.getProperty(key);
         if (raw == null || raw.isBlank()) return defaultValue;
@@ -0,0 +1,151 @@
+package stud.g06;
+
+import core.game.Move;
+import core.board.PieceColor;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch position analysis over recorded games, for regression checks of engine changes without playing new games.
+ *
+ * <p>Every position of every game in a {@link GameRecords} file is searched by the G06 engine at a fixed budget.
+ * Games are distributed over a worker pool (one engine instance per worker thread) and each finished game is
+ * streamed to the output as tab-separated lines:
+ * <pre>
+ *   game  ply  side  move  score  depth  nodes  dtss  ms
+ * </pre>
+ *
+ * <p>Usage:
+ * <pre>
+ *   java -cp lib/aiFramework.jar:out stud.g06.BatchAnalyzer [records] [out] [workers] [budget]
+ * </pre>
+ * {@code budget} is either a time per position ({@code 2000ms}, default) or a node count ({@code 200000n}).
+ * Node budgets make runs reproducible across machines: they also bypass the forced-win store shared by the
+ * workers, whose contents would otherwise depend on which worker reached a position first.
+ */
+public final class BatchAnalyzer {
+    private static final ThreadLocal<AI> ENGINE = ThreadLocal.withInitial(AI::new);
+
+    private BatchAnalyzer() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BatchAnalyzer <records> <out> [workers] [budget: 2000ms | 200000n]");
+            System.exit(2);
+        }
+        Path in = Paths.get(args[0]);
+        Path out = Paths.get(args[1]);
+        int workers = args.length >= 3 ? parseInt(args[2], 0) : 0;
+        if (workers <= 0) workers = Runtime.getRuntime().availableProcessors();
+        String budget = args.length >= 4 ? args[3].trim().toLowerCase(Locale.ROOT) : "2000ms";
+
+        long timeMs = 0;
+        long nodes = 0;
+        if (budget.endsWith("ms")) {
+            timeMs = parseLong(budget.substring(0, budget.length() - 2), 2000);
+        } else if (budget.endsWith("n")) {
+            nodes = parseLong(budget.substring(0, budget.length() - 1), 200_000);
+        } else {
+            System.err.println("Unknown budget: " + budget);
+            System.exit(2);
+        }
+
+        List<GameRecords.Record> games = GameRecords.read(in);
+        System.err.println("Analysing " + games.size() + " games with " + workers + " workers, budget=" + budget);
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, daemonThreads("G06-Analyze-"));
+        CompletionService<String> done = new ExecutorCompletionService<>(pool);
+        final long fTimeMs = timeMs;
+        final long fNodes = nodes;
+        for (int i = 0; i < games.size(); i++) {
+            final int gameIndex = i;
+            final List<Move> moves = games.get(i).moves;
+            done.submit(() -> analyzeGame(gameIndex, moves, fTimeMs, fNodes));
+        }
+
+        try (BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            w.write("# game\tply\tside\tmove\tscore\tdepth\tnodes\tdtss\tms\n");
+            for (int i = 0; i < games.size(); i++) {
+                try {
+                    w.write(done.take().get());
+                } catch (ExecutionException e) {
+                    System.err.println("Analysis task failed: " + e.getCause());
+                }
+                w.flush();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String analyzeGame(int gameIndex, List<Move> moves, long timeMs, long nodes) {
+        AI engine = ENGINE.get();
+        engine.resetSearchState();
+        engine.setForcedWinCache(nodes <= 0);
+
+        BoardPro board = new BoardPro();
+        StringBuilder sb = new StringBuilder();
+        for (int ply = 0; ply <= moves.size(); ply++) {
+            if (board.gameOver()) break;
+
+            PieceColor side = board.whoseMove();
+            SearchReport r = engine.analyze(board, timeMs, nodes);
+            sb.append(gameIndex).append('\t')
+                    .append(ply).append('\t')
+                    .append(side.shortName()).append('\t')
+                    .append(r.move()).append('\t')
+                    .append(r.score()).append('\t')
+                    .append(r.depth()).append('\t')
+                    .append(r.nodes()).append('\t')
+                    .append(r.dtssProof() ? 1 : 0).append('\t')
+                    .append(r.elapsedMs()).append('\n');
+
+            if (ply == moves.size()) break;
+            Move played = moves.get(ply);
+            if (!board.legalMove(played)) {
+                System.err.println("game " + gameIndex + ": illegal move " + played + " at ply " + ply);
+                break;
+            }
+            board.makeMove(played);
+        }
+        return sb.toString();
+    }
+
+    private static java.util.concurrent.ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger id = new AtomicInteger(1);
+        return r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName(prefix + id.getAndIncrement());
+            return t;
+        };
+    }
+
+    private static int parseInt(String s, int fallback) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static long parseLong(String s, long fallback) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
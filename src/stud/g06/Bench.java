@@ -5,20 +5,26 @@ import core.player.Player;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Fast benchmark runner for local tuning.
  *
  * <p>Key features:
  * <ul>
- *   <li>No busy-wait: games are awaited via {@code Thread.join()} inside {@link BenchWorker}.</li>
- *   <li>Multi-process: split games across JVM processes to speed up local evaluation.</li>
+ *   <li>No busy-wait: {@link BenchWorker} plays games on its own thread through {@link HeadlessGame}, with no
+ *       Swing timers or per-game threads.</li>
+ *   <li>Multi-process: {@code procs} long-lived worker JVMs pull games from a shared queue one at a time, so a
+ *       worker that drew short games simply plays more of them and all workers finish together.</li>
  * </ul>
  *
  * <p>Usage (compatible with the old runner defaults):
@@ -26,6 +32,12 @@ import java.util.Map;
  *   java -cp lib/aiFramework.jar:out stud.g06.Bench [opponentClass] [games] [procs] [g06Threads]
  * </pre>
  *
+ * <p>With {@code procs == 1}, {@code -Dbench.concurrency=K} plays K games at once on a thread pool in this JVM
+ * instead: no extra JVM start-up or JIT warm-up per worker, and each game runs single-threaded.
+ *
+ * <p>SPRT mode ({@code -Dbench.sprt=true}, parameters in {@link Sprt}) treats {@code games} as a maximum: workers
+ * stream each result as it finishes and the run stops all of them once the likelihood ratio crosses a bound.
+ *
  * <p>Notes:
  * <ul>
  *   <li>{@code games} follows the original convention (Match gameNumbers). With 2 players this equals total games.</li>
@@ -68,81 +80,270 @@ public final class Bench {
         String g06Name = new stud.g06.AI().name();
         String oppName = resolvePlayerName(opponentClass);
 
-        if (procs == 1) {
-            BenchWorker.MatchStats stats = BenchWorker.runInProcess(opponentClass, games, System.err);
+        // SPRT mode always uses worker processes, which stream per-game results and can be stopped early.
+        Sprt sprt = Boolean.getBoolean("bench.sprt") ? Sprt.fromProperties() : null;
+
+        if (procs == 1 && sprt == null) {
+            int concurrency = Math.max(1, Integer.getInteger("bench.concurrency", 1));
+            BenchWorker.MatchStats stats =
+                    BenchWorker.runInProcess(opponentClass, games, concurrency, System.err, null);
             if (stats == null) System.exit(2);
             printSummary(g06Name, oppName, stats, 1, 0);
             return;
         }
 
-        // Multi-process mode: distribute games across workers.
+        // Multi-process mode: workers take games from a shared queue as they become free.
         int autoThreads = Math.max(1, available / procs);
         if (args.length < 4) {
             g06Threads = Math.min(autoThreads, 16);
         }
 
-        List<Integer> gamesPerProc = splitGames(games, procs);
         BenchWorker.MatchStats total = new BenchWorker.MatchStats();
-
-        String javaBin = javaBin();
-        String classPath = System.getProperty("java.class.path");
+        String side = System.getProperty("bench.side", "both").trim().toLowerCase(Locale.ROOT);
 
         ArrayList<Process> processes = new ArrayList<>();
-        ArrayList<String> outputs = new ArrayList<>();
-
+        LiveResults live = new LiveResults(total, sprt, procs, games, side);
         try {
-            for (int i = 0; i < gamesPerProc.size(); i++) {
-                int g = gamesPerProc.get(i);
-                ArrayList<String> cmd = new ArrayList<>();
-                cmd.add(javaBin);
-                cmd.add("-Djava.awt.headless=true");
-                cmd.add("-Dg06.threads=" + g06Threads);
-                cmd.add("-cp");
-                cmd.add(classPath);
-                cmd.add("stud.g06.BenchWorker");
-                cmd.add(opponentClass);
-                cmd.add(Integer.toString(g));
-
-                ProcessBuilder pb = new ProcessBuilder(cmd);
-                pb.redirectError(ProcessBuilder.Redirect.INHERIT);
-                processes.add(pb.start());
-            }
-
-            // Collect outputs (each worker prints one RESULT line).
-            for (Process p : processes) {
-                String out = readAllStdout(p);
-                outputs.add(out);
-                int code = p.waitFor();
-                if (code != 0) {
-                    System.err.println("Worker process failed (exit " + code + ").");
-                    System.err.println(out);
-                    System.exit(code);
-                }
+            for (int i = 0; i < procs; i++) {
+                processes.add(startWorker(opponentClass, BenchWorker.SERVE, g06Threads, Map.of()));
             }
+            streamResults(processes, live);
+            live.await();
         } catch (Exception e) {
             System.err.println("Benchmark failed: " + e.getMessage());
-            e.printStackTrace();
-            System.exit(2);
+            live.failed++;
+        } finally {
+            processes.forEach(Process::destroyForcibly);
         }
 
-        for (String out : outputs) {
-            String line = firstResultLine(out);
-            if (line == null) {
-                System.err.println("Missing RESULT line in worker output:");
-                System.err.println(out);
-                System.exit(2);
+        synchronized (live) {
+            printSummary(g06Name, oppName, total, procs, g06Threads);
+            live.printTelemetry();
+            if (sprt != null) {
+                int[] wdl = winDrawLoss(total);
+                System.out.printf(
+                        "\tSPRT [%.1f, %.1f]: LLR %.3f (%.3f, %.3f) -> %s%n",
+                        sprt.elo0,
+                        sprt.elo1,
+                        sprt.llr(wdl[0], wdl[1], wdl[2]),
+                        sprt.lower,
+                        sprt.upper,
+                        live.verdict == Sprt.Verdict.H1
+                                ? "H1 accepted"
+                                : live.verdict == Sprt.Verdict.H0 ? "H0 accepted" : "inconclusive");
+            }
+            if (live.failed > 0 && live.verdict == Sprt.Verdict.CONTINUE) {
+                System.err.println(live.failed + " worker(s) failed; the results above are partial.");
+                System.exit(1);
             }
-            Map<String, String> kv = parseKv(line);
-            total.games += parseInt(kv.get("games"), 0);
-            total.g06Stats[0][0] += parseInt(kv.get("g06FirstLose"), 0);
-            total.g06Stats[0][1] += parseInt(kv.get("g06FirstDraw"), 0);
-            total.g06Stats[0][2] += parseInt(kv.get("g06FirstWin"), 0);
-            total.g06Stats[1][0] += parseInt(kv.get("g06SecondLose"), 0);
-            total.g06Stats[1][1] += parseInt(kv.get("g06SecondDraw"), 0);
-            total.g06Stats[1][2] += parseInt(kv.get("g06SecondWin"), 0);
         }
+    }
+
+    /** Results aggregated live from the GAME lines of all workers; every access holds its monitor. */
+    private static final class LiveResults {
+        private final BenchWorker.MatchStats total;
+        private final Sprt sprt;
+        private int running;
+        int failed;
+        Sprt.Verdict verdict = Sprt.Verdict.CONTINUE;
+
+        private long moves;
+        private long thinkMs;
+        private long maxMoveMs;
+        private long nodes;
+        private long steps;
+        private final TreeMap<String, Integer> reasons = new TreeMap<>();
+
+        private final int jobs;
+        private final String side;
+        private int issued;
 
-        printSummary(g06Name, oppName, total, procs, g06Threads);
+        LiveResults(BenchWorker.MatchStats total, Sprt sprt, int workers, int jobs, String side) {
+            this.total = total;
+            this.sprt = sprt;
+            this.running = workers;
+            this.jobs = jobs;
+            this.side = side;
+        }
+
+        /**
+         * The JOB line for the next game in the queue, or null once all games are handed out or the SPRT has
+         * decided. Colours alternate by game index, so they stay balanced however games land on workers.
+         */
+        synchronized String nextJob() {
+            if (issued >= jobs || verdict != Sprt.Verdict.CONTINUE) return null;
+            int index = issued++;
+            boolean g06First = side.equals("first") || (!side.equals("second") && index % 2 == 0);
+            return BenchWorker.JOB + " index=" + index + " g06First=" + g06First;
+        }
+
+        synchronized void addGame(Map<String, String> kv) {
+            int score = parseInt(kv.get("score"), -1);
+            if (score < 0 || score > 2) return;
+            total.g06Stats[Boolean.parseBoolean(kv.get("g06First")) ? 0 : 1][score]++;
+            total.games++;
+            steps += parseInt(kv.get("steps"), 0);
+            reasons.merge(kv.getOrDefault("reason", "?"), 1, Integer::sum);
+            long[] ms = parseLongs(kv.get("ms"));
+            for (long v : ms) {
+                thinkMs += v;
+                maxMoveMs = Math.max(maxMoveMs, v);
+            }
+            moves += ms.length;
+            for (long v : parseLongs(kv.get("nodes"))) nodes += v;
+
+            int[] wdl = winDrawLoss(total);
+            StringBuilder progress = new StringBuilder();
+            progress.append("game ").append(total.games).append(": ")
+                    .append(kv.getOrDefault("result", "?")).append(" as ").append(kv.getOrDefault("color", "?"))
+                    .append(" in ").append(kv.getOrDefault("steps", "?")).append(" steps")
+                    .append("  total +").append(wdl[0]).append(" =").append(wdl[1]).append(" -").append(wdl[2]);
+            if (sprt != null) {
+                double llr = sprt.llr(wdl[0], wdl[1], wdl[2]);
+                progress.append(String.format(" LLR %.3f (%.3f, %.3f)", llr, sprt.lower, sprt.upper));
+                if (verdict == Sprt.Verdict.CONTINUE) verdict = sprt.verdict(llr);
+            }
+            System.err.println(progress);
+            notifyAll();
+        }
+
+        synchronized void workerDone(int exitCode, CharSequence output) {
+            running--;
+            if (exitCode != 0 && verdict == Sprt.Verdict.CONTINUE) {
+                failed++;
+                System.err.println("Worker process failed (exit " + exitCode + "):");
+                System.err.print(output);
+            }
+            notifyAll();
+        }
+
+        /** Waits until every worker has finished or the SPRT has decided. */
+        synchronized void await() throws InterruptedException {
+            while (running > 0 && verdict == Sprt.Verdict.CONTINUE) wait();
+        }
+
+        void printTelemetry() {
+            if (total.games == 0) return;
+            System.out.printf(
+                    "\tmoves: %d (%.1f steps/game), think: avg %d ms, max %d ms, %.0f knodes/s%n",
+                    moves,
+                    steps / (double) total.games,
+                    moves == 0 ? 0 : thinkMs / moves,
+                    maxMoveMs,
+                    thinkMs == 0 ? 0.0 : nodes / (double) thinkMs);
+            System.out.println("\tend reasons: " + reasons);
+        }
+    }
+
+    /**
+     * Serves every job-server worker on its own thread: each READY is answered with the next JOB (or QUIT when the
+     * queue is empty) and GAME lines are fed to {@code live} as they arrive, so a slow or crashed worker neither
+     * delays nor discards the others' results.
+     */
+    private static void streamResults(List<Process> processes, LiveResults live) {
+        for (int i = 0; i < processes.size(); i++) {
+            Process p = processes.get(i);
+            Thread t = new Thread(() -> {
+                StringBuilder other = new StringBuilder();
+                int code = 2;
+                try (BufferedReader br = new BufferedReader(
+                                new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8));
+                        PrintStream jobs = new PrintStream(p.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        if (line.equals(BenchWorker.READY)) {
+                            String job = live.nextJob();
+                            jobs.println(job != null ? job : BenchWorker.QUIT);
+                        } else if (line.startsWith("GAME ")) {
+                            live.addGame(parseKv(line));
+                        } else if (!line.startsWith("RESULT ")) {
+                            other.append(line).append('\n');
+                        }
+                    }
+                    code = p.waitFor();
+                } catch (IOException | InterruptedException e) {
+                    other.append(e).append('\n');
+                } finally {
+                    live.workerDone(code, other);
+                }
+            }, "Bench-Reader-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    private static long[] parseLongs(String csv) {
+        if (csv == null || csv.isEmpty()) return new long[0];
+        String[] parts = csv.split(",");
+        long[] out = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                out[i] = Long.parseLong(parts[i]);
+            } catch (NumberFormatException e) {
+                out[i] = 0;
+            }
+        }
+        return out;
+    }
+
+    private static int[] winDrawLoss(BenchWorker.MatchStats stats) {
+        return new int[] {
+            stats.g06Stats[0][2] + stats.g06Stats[1][2],
+            stats.g06Stats[0][1] + stats.g06Stats[1][1],
+            stats.g06Stats[0][0] + stats.g06Stats[1][0]
+        };
+    }
+
+    /**
+     * Starts a {@link BenchWorker} JVM playing {@code games} games against {@code opponentClass}. Its stdout carries
+     * the GAME and RESULT lines; {@code overrides} are passed as system properties in place of any forwarded value.
+     */
+    static Process startWorker(String opponentClass, int games, int g06Threads, Map<String, String> overrides)
+            throws IOException {
+        return startWorker(opponentClass, Integer.toString(games), g06Threads, overrides);
+    }
+
+    /** As above; {@code games} is a count or {@link BenchWorker#SERVE} for a job server fed through stdin. */
+    private static Process startWorker(
+            String opponentClass, String games, int g06Threads, Map<String, String> overrides) throws IOException {
+        ArrayList<String> cmd = new ArrayList<>();
+        cmd.add(javaBin());
+        cmd.add("-Djava.awt.headless=true");
+        cmd.add("-Dg06.threads=" + g06Threads);
+        forwardProperties(cmd, overrides);
+        for (Map.Entry<String, String> e : overrides.entrySet()) {
+            cmd.add("-D" + e.getKey() + "=" + e.getValue());
+        }
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add("stud.g06.BenchWorker");
+        cmd.add(opponentClass);
+        cmd.add(games);
+
+        ProcessBuilder pb = new ProcessBuilder(cmd);
+        pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+        return pb.start();
+    }
+
+    /** Adds the counts of one worker RESULT line to {@code total}. */
+    static void addResult(BenchWorker.MatchStats total, String resultLine) {
+        Map<String, String> kv = parseKv(resultLine);
+        total.games += parseInt(kv.get("games"), 0);
+        total.g06Stats[0][0] += parseInt(kv.get("g06FirstLose"), 0);
+        total.g06Stats[0][1] += parseInt(kv.get("g06FirstDraw"), 0);
+        total.g06Stats[0][2] += parseInt(kv.get("g06FirstWin"), 0);
+        total.g06Stats[1][0] += parseInt(kv.get("g06SecondLose"), 0);
+        total.g06Stats[1][1] += parseInt(kv.get("g06SecondDraw"), 0);
+        total.g06Stats[1][2] += parseInt(kv.get("g06SecondWin"), 0);
+    }
+
+    /** Passes {@code bench.*} and {@code g06.*} system properties (except thread count) on to worker JVMs. */
+    private static void forwardProperties(List<String> cmd, Map<String, String> overrides) {
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.equals("g06.threads") || overrides.containsKey(key)) continue;
+            if (!key.startsWith("bench.") && !key.startsWith("g06.")) continue;
+            cmd.add("-D" + key + "=" + System.getProperty(key));
+        }
     }
 
     private static String resolvePlayerName(String className) {
@@ -221,16 +422,6 @@ public final class Bench {
                         + format(totalScore));
     }
 
-    private static List<Integer> splitGames(int total, int parts) {
-        int base = total / parts;
-        int rem = total % parts;
-        ArrayList<Integer> res = new ArrayList<>(parts);
-        for (int i = 0; i < parts; i++) {
-            res.add(base + (i < rem ? 1 : 0));
-        }
-        return res;
-    }
-
     private static String javaBin() {
         String home = System.getProperty("java.home");
         File bin = new File(home, "bin");
@@ -238,7 +429,7 @@ public final class Bench {
         return java.getAbsolutePath();
     }
 
-    private static String readAllStdout(Process p) throws Exception {
+    static String readAllStdout(Process p) throws IOException {
         try (BufferedReader br =
                 new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
             StringBuilder sb = new StringBuilder();
@@ -250,7 +441,7 @@ public final class Bench {
         }
     }
 
-    private static String firstResultLine(String out) {
+    static String firstResultLine(String out) {
         if (out == null) return null;
         for (String line : out.split("\\R")) {
             if (line.startsWith("RESULT ")) return line;
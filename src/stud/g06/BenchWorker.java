@@ -1,21 +1,61 @@
 package stud.g06;
 
+import core.board.PieceColor;
 import core.game.Game;
 import core.game.GameResult;
 import core.game.Move;
 import core.game.ui.Configuration;
 import core.player.Player;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Single-process match runner without busy-wait (joins the game thread).
+ * Single-process match runner without busy-wait.
  *
- * <p>Designed for multi-process benchmarking: prints one machine-readable RESULT line to stdout.
+ * <p>Designed for multi-process benchmarking: streams one machine-readable GAME line to stdout as each game
+ * finishes, then prints one RESULT line with the totals. A GAME line is space-separated {@code key=value} tokens:
+ * <pre>
+ *   GAME index=3 g06First=false color=BLACK score=2 result=win steps=17 reason=... ms=0,7812,... nodes=0,91234,...
+ * </pre>
+ * {@code score} is as in {@link GameResult#score}, {@code steps} and {@code reason} are the referee's (whitespace
+ * in the reason replaced by {@code _}), and {@code ms}/{@code nodes} list G06's think time and search nodes per
+ * move. Consumers must ignore keys they do not know.
+ *
+ * <p>An optional third argument (or {@code bench.concurrency}) plays that many games at once on a thread pool in
+ * this JVM (see {@link #runInProcess(String, int, int, PrintStream, PrintStream)}).
+ *
+ * <p>With {@code serve} in place of the game count the worker becomes a job server for {@link Bench} (see
+ * {@link #serve}).
+ *
+ * <p>Games are refereed by {@link HeadlessGame} on the calling thread; {@code bench.referee=framework} uses the
+ * framework's own {@link Game} thread and timers instead.
+ *
+ * <p>Optional system properties: {@code bench.side=first|second|both}, {@code bench.dumpOpenings=true} with
+ * {@code bench.dumpMoves=N}, and {@code bench.records=<file>} to append every finished game in {@link GameRecords}
+ * format, or to a binary {@link GameStore} (with names, end reason and think times) when the file name ends in
+ * {@code .g6gs}; both are input for {@link OpeningBookBuilder}, {@link BatchAnalyzer} and {@link TexelTuner}.
  */
 public final class BenchWorker {
     static final class MatchStats {
@@ -24,20 +64,32 @@ public final class BenchWorker {
         int games;
     }
 
+    static final String SERVE = "serve";
+    static final String READY = "READY";
+    static final String JOB = "JOB";
+    static final String QUIT = "QUIT";
+
     private BenchWorker() {}
 
     public static void main(String[] args) {
         Configuration.GUI = false;
 
         String opponentClass = args.length >= 1 ? args[0] : "stud.g02.AI";
+        if (args.length >= 2 && args[1].equals(SERVE)) {
+            System.exit(serve(opponentClass) ? 0 : 2);
+        }
         int games = args.length >= 2 ? Integer.parseInt(args[1]) : 10;
+        int concurrency =
+                args.length >= 3 ? Integer.parseInt(args[2]) : Integer.getInteger("bench.concurrency", 1);
 
-        MatchStats stats = runInProcess(opponentClass, games, System.out);
+        MatchStats stats = runInProcess(opponentClass, games, concurrency, System.out, System.out);
         if (stats == null) System.exit(2);
+        printResult(System.out, opponentClass, stats);
+    }
 
-        // Machine-readable line for the orchestrator.
-        // NOTE: spaces are separators; values must not contain spaces.
-        PrintStream out = System.out;
+    // Machine-readable line for the orchestrator.
+    // NOTE: spaces are separators; values must not contain spaces.
+    private static void printResult(PrintStream out, String opponentClass, MatchStats stats) {
         out.printf(
                 "RESULT opp=%s games=%d g06FirstLose=%d g06FirstDraw=%d g06FirstWin=%d g06SecondLose=%d g06SecondDraw=%d g06SecondWin=%d%n",
                 opponentClass,
@@ -48,59 +100,215 @@ public final class BenchWorker {
                 stats.g06Stats[1][0],
                 stats.g06Stats[1][1],
                 stats.g06Stats[1][2]);
+        out.flush();
     }
 
-    static MatchStats runInProcess(String opponentClass, int games, PrintStream err) {
+    /** Plays the match in this JVM one game at a time; see {@link #runInProcess(String, int, int, PrintStream, PrintStream)}. */
+    static MatchStats runInProcess(String opponentClass, int games, PrintStream err, PrintStream progress) {
+        return runInProcess(opponentClass, games, 1, err, progress);
+    }
+
+    /**
+     * Plays the match in this JVM with up to {@code concurrency} games at once; {@code progress}, when non-null,
+     * receives a GAME line after every game (in completion order).
+     *
+     * <p>Each pool thread owns a {@link Session} with its own freshly constructed engine and opponent, and takes the
+     * next game index from a shared counter. Player clones are shallow (a G06 clone shares its transposition table
+     * and per-game lists with the template), so templates are never shared between threads. With more than one
+     * game in flight the G06 engines search without the shared root pool, which would otherwise be oversubscribed
+     * by every game's scouts; the concurrent games are the parallelism. Colours follow the game index exactly as in
+     * the sequential run. Returns null if any game fails.
+     */
+    static MatchStats runInProcess(
+            String opponentClass, int games, int concurrency, PrintStream err, PrintStream progress) {
         if (games <= 0) games = 1;
+        int seats = Math.max(1, Math.min(concurrency, games));
+        if (seats > 1) {
+            // Game reads the GUI flag on its own thread; concurrent games must never open windows.
+            Configuration.GUI = false;
+        }
+        String side =
+                System.getProperty("bench.side", "both").trim().toLowerCase(Locale.ROOT);
+        MatchStats total = new MatchStats();
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        int gameCount = games;
 
-        Player g06Template = new stud.g06.AI();
-        Player oppTemplate = tryLoadPlayer(opponentClass);
-        if (oppTemplate == null) {
-            err.println("Cannot load opponent: " + opponentClass);
+        List<Callable<Void>> tasks = new ArrayList<>(seats);
+        for (int s = 0; s < seats; s++) {
+            tasks.add(() -> {
+                Session session = Session.open(opponentClass, err, seats == 1);
+                if (session == null) {
+                    failed.set(true);
+                    return null;
+                }
+                MatchStats own = new MatchStats();
+                try {
+                    int i;
+                    while (!failed.get() && (i = next.getAndIncrement()) < gameCount) {
+                        String line = session.play(i, g06First(side, i), own);
+                        if (line == null) {
+                            failed.set(true);
+                            break;
+                        }
+                        if (progress != null) {
+                            synchronized (progress) {
+                                progress.println(line);
+                                progress.flush();
+                            }
+                        }
+                    }
+                } finally {
+                    synchronized (total) {
+                        total.games += own.games;
+                        for (int k = 0; k < 2; k++) {
+                            for (int r = 0; r < 3; r++) total.g06Stats[k][r] += own.g06Stats[k][r];
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(seats, matchThreads());
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            err.println("Interrupted while waiting for games to finish.");
+            return null;
+        } catch (ExecutionException e) {
+            err.println("Game runner failed: " + e.getCause());
             return null;
+        } finally {
+            pool.shutdownNow();
         }
+        return failed.get() ? null : total;
+    }
+
+    private static boolean g06First(String side, int index) {
+        if ("first".equals(side)) return true;
+        if ("second".equals(side)) return false;
+        return index % 2 == 0;
+    }
+
+    private static ThreadFactory matchThreads() {
+        AtomicInteger id = new AtomicInteger(1);
+        return r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName("G06-Match-" + id.getAndIncrement());
+            return t;
+        };
+    }
 
+    /**
+     * Job-server mode used by {@link Bench}: prints {@code READY}, then plays one game per {@code JOB index=..
+     * g06First=..} line read from stdin, answering each with its GAME line and another {@code READY}. {@code QUIT}
+     * or end of input prints the RESULT line and returns. Long-lived servers let the orchestrator hand out games
+     * one at a time, so no worker sits idle while another still has a queue of long games.
+     */
+    static boolean serve(String opponentClass) {
+        PrintStream out = System.out;
+        Session session = Session.open(opponentClass, out, true);
+        if (session == null) return false;
         MatchStats stats = new MatchStats();
-        String side =
-                System.getProperty("bench.side", "both").trim().toLowerCase(Locale.ROOT);
-        boolean dumpOpenings = Boolean.parseBoolean(System.getProperty("bench.dumpOpenings", "false"));
-        int dumpMoves = 2;
-        try {
-            dumpMoves = Integer.parseInt(System.getProperty("bench.dumpMoves", "2"));
-        } catch (NumberFormatException ignored) {
-            dumpMoves = 2;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            out.println(READY);
+            out.flush();
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.equals(QUIT)) break;
+                if (!line.startsWith(JOB + " ")) continue;
+                int index = -1;
+                boolean g06First = true;
+                for (String token : line.split("\\s+")) {
+                    if (token.startsWith("index=")) index = Integer.parseInt(token.substring(6));
+                    if (token.startsWith("g06First=")) g06First = Boolean.parseBoolean(token.substring(9));
+                }
+                String game = session.play(index, g06First, stats);
+                if (game == null) return false;
+                out.println(game);
+                out.println(READY);
+                out.flush();
+            }
+        } catch (IOException | NumberFormatException e) {
+            out.println("Job stream failed: " + e);
+            return false;
         }
-        Field movesField = null;
-        if (dumpOpenings) {
+        printResult(out, opponentClass, stats);
+        return true;
+    }
+
+    /** Loaded players and per-run options; plays one game at a time. */
+    private static final class Session {
+        private final Player g06Template;
+        private final Player oppTemplate;
+        private final PrintStream err;
+        private final boolean dumpOpenings;
+        private final int dumpMoves;
+        private final String recordFile;
+        private final boolean frameworkReferee;
+        private final Field stepsField = resultField("steps");
+        private final Field reasonField = resultField("endReason");
+        private final Field movesField;
+
+        private Session(Player g06Template, Player oppTemplate, PrintStream err) {
+            this.g06Template = g06Template;
+            this.oppTemplate = oppTemplate;
+            this.err = err;
+            dumpOpenings = Boolean.parseBoolean(System.getProperty("bench.dumpOpenings", "false"));
+            int n;
             try {
-                movesField = GameResult.class.getDeclaredField("moves");
-                movesField.setAccessible(true);
-            } catch (ReflectiveOperationException ignored) {
-                movesField = null;
-                err.println("bench.dumpOpenings requested but GameResult#moves is not accessible.");
+                n = Integer.parseInt(System.getProperty("bench.dumpMoves", "2"));
+            } catch (NumberFormatException ignored) {
+                n = 2;
+            }
+            dumpMoves = n;
+            recordFile = System.getProperty("bench.records", "").trim();
+            frameworkReferee = "framework".equals(System.getProperty("bench.referee", "headless").trim());
+            Field moves = null;
+            if (dumpOpenings || !recordFile.isEmpty()) {
+                moves = resultField("moves");
+                if (moves == null) {
+                    err.println("bench.dumpOpenings/bench.records requested but GameResult#moves is not accessible.");
+                }
             }
+            movesField = moves;
         }
 
-        for (int i = 0; i < games; i++) {
-            boolean g06First;
-            if ("first".equals(side)) {
-                g06First = true;
-            } else if ("second".equals(side)) {
-                g06First = false;
-            } else {
-                g06First = (i % 2 == 0);
+        /** Loads fresh player templates; {@code rootParallel} false keeps G06 off the shared root pool. */
+        static Session open(String opponentClass, PrintStream err, boolean rootParallel) {
+            Player oppTemplate = tryLoadPlayer(opponentClass);
+            if (oppTemplate == null) {
+                err.println("Cannot load opponent: " + opponentClass);
+                return null;
             }
+            AI g06 = new AI();
+            g06.setRootParallel(rootParallel);
+            return new Session(g06, oppTemplate, err);
+        }
+
+        /** Plays game {@code index}, adds it to {@code stats} and returns its GAME line; null on failure. */
+        String play(int index, boolean g06First, MatchStats stats) {
             Player first = g06First ? clonePlayer(g06Template) : clonePlayer(oppTemplate);
             Player second = g06First ? clonePlayer(oppTemplate) : clonePlayer(g06Template);
 
-            try {
-                Game game = new Game(first, second);
-                Thread t = game.start();
-                t.join();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                err.println("Interrupted while waiting for game to finish.");
-                return null;
+            HeadlessGame headless = null;
+            if (frameworkReferee) {
+                try {
+                    Game game = new Game(first, second);
+                    Thread t = game.start();
+                    t.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    err.println("Interrupted while waiting for game to finish.");
+                    return null;
+                }
+            } else {
+                headless = new HeadlessGame(first, second);
+                headless.play();
             }
 
             Player g06Player = g06First ? first : second;
@@ -111,27 +319,21 @@ public final class BenchWorker {
             }
             GameResult last = results.get(results.size() - 1);
 
-            if (dumpOpenings && movesField != null) {
-                try {
-                    @SuppressWarnings("unchecked")
-                    ArrayList<Move> moves = (ArrayList<Move>) movesField.get(last);
-                    if (moves != null && !moves.isEmpty()) {
-                        StringBuilder seq = new StringBuilder();
-                        int limit = Math.min(Math.max(1, dumpMoves), moves.size());
-                        for (int k = 0; k < limit; k++) {
-                            if (k > 0) seq.append(',');
-                            seq.append(moves.get(k));
-                        }
-                        err.println(
-                                "OPENING game="
-                                        + i
-                                        + " g06First="
-                                        + g06First
-                                        + " moves="
-                                        + seq);
-                    }
-                } catch (IllegalAccessException ignored) {
+            ArrayList<Move> moves = (movesField != null) ? gameMoves(movesField, last) : null;
+            if (dumpOpenings && moves != null && !moves.isEmpty()) {
+                StringBuilder seq = new StringBuilder();
+                int limit = Math.min(Math.max(1, dumpMoves), moves.size());
+                for (int k = 0; k < limit; k++) {
+                    if (k > 0) seq.append(',');
+                    seq.append(moves.get(k));
                 }
+                err.println(
+                        "OPENING game="
+                                + index
+                                + " g06First="
+                                + g06First
+                                + " moves="
+                                + seq);
             }
 
             int score = last.score(g06Player.name());
@@ -140,11 +342,109 @@ public final class BenchWorker {
                 return null;
             }
 
+            if (!recordFile.isEmpty() && moves != null) {
+                // The first player always holds WHITE in this framework.
+                PieceColor g06Color = g06First ? PieceColor.WHITE : PieceColor.BLACK;
+                PieceColor winner =
+                        (score == 1) ? PieceColor.EMPTY : (score == 2) ? g06Color : g06Color.opposite();
+                Path file = Paths.get(recordFile);
+                if (GameStore.isStore(file)) {
+                    Object why = readField(reasonField, last);
+                    char reason = (why != null && !why.toString().isEmpty()) ? why.toString().charAt(0) : '?';
+                    int whiteMs = headless != null ? (int) headless.usedMs(PieceColor.WHITE) : -1;
+                    int blackMs = headless != null ? (int) headless.usedMs(PieceColor.BLACK) : -1;
+                    GameStore.Game g =
+                            new GameStore.Game(moves, winner, reason, first.name(), second.name(), whiteMs, blackMs);
+                    try {
+                        GameStore.append(file, g);
+                    } catch (IOException e) {
+                        err.println("Cannot append game record to " + file + ": " + e.getMessage());
+                    }
+                } else {
+                    appendRecord(file, GameRecords.format(moves, winner), err);
+                }
+            }
+
             stats.g06Stats[g06First ? 0 : 1][score]++;
             stats.games++;
+            return gameLine(index, g06First, score, last, g06Player, stepsField, reasonField);
         }
+    }
 
-        return stats;
+    private static String gameLine(
+            int index, boolean g06First, int score, GameResult result, Player g06Player, Field steps, Field reason) {
+        StringBuilder sb = new StringBuilder("GAME");
+        sb.append(" index=").append(index);
+        sb.append(" g06First=").append(g06First);
+        // The first player always holds WHITE in this framework.
+        sb.append(" color=").append(g06First ? PieceColor.WHITE : PieceColor.BLACK);
+        sb.append(" score=").append(score);
+        sb.append(" result=").append(score == 2 ? "win" : score == 1 ? "draw" : "loss");
+        Object st = readField(steps, result);
+        if (st != null) sb.append(" steps=").append(st);
+        Object why = readField(reason, result);
+        if (why != null) sb.append(" reason=").append(why.toString().trim().replaceAll("\\s+", "_"));
+        if (g06Player instanceof AI) {
+            StringBuilder ms = new StringBuilder();
+            StringBuilder nodes = new StringBuilder();
+            for (SearchReport r : ((AI) g06Player).moveReports()) {
+                if (ms.length() > 0) {
+                    ms.append(',');
+                    nodes.append(',');
+                }
+                ms.append(r.elapsedMs());
+                nodes.append(r.nodes());
+            }
+            sb.append(" ms=").append(ms).append(" nodes=").append(nodes);
+        }
+        return sb.toString();
+    }
+
+    private static Field resultField(String name) {
+        try {
+            Field f = GameResult.class.getDeclaredField(name);
+            f.setAccessible(true);
+            return f;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Object readField(Field f, GameResult result) {
+        if (f == null) return null;
+        try {
+            return f.get(result);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayList<Move> gameMoves(Field movesField, GameResult result) {
+        try {
+            return (ArrayList<Move>) movesField.get(result);
+        } catch (IllegalAccessException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Appends one record line; the file lock keeps lines whole when several worker processes share a file, and the
+     * method lock does the same for concurrent games in this JVM (a second in-process lock would throw).
+     */
+    private static synchronized void appendRecord(Path file, String line, PrintStream err) {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel ch =
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            FileLock lock = ch.lock();
+            try {
+                ch.write(ByteBuffer.wrap(bytes));
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            err.println("Cannot append game record to " + file + ": " + e.getMessage());
+        }
     }
 
     private static Player tryLoadPlayer(String className) {
@@ -10,10 +10,18 @@ import java.util.Arrays;
 public final class BoardPro extends Board {
     private final RoadTable roadTable = new RoadTable();
     private final int[] battle = new int[361];
+    // Position hash under each of the 8 board symmetries (see Symmetry), maintained on make/undo.
+    private final long[] symHashes = new long[Symmetry.COUNT];
+    // First layer of Nnue.NETWORK for this position; null when no network is loaded.
+    private final Nnue.Accumulator nnue;
 
     public BoardPro() {
         super();
         updateBattleForMove(180);
+        for (int t = 0; t < Symmetry.COUNT; t++) {
+            symHashes[t] = Symmetry.key(Symmetry.PERM[t][180], PieceColor.BLACK);
+        }
+        nnue = (Nnue.NETWORK != null) ? Nnue.NETWORK.newAccumulator(this) : null;
     }
 
     public BoardPro(BoardPro src) {
@@ -28,16 +36,38 @@ public final class BoardPro extends Board {
             if (pos != 180) roadTable.applyStone(pos, c);
             updateBattleForMove(pos);
         }
+        System.arraycopy(src.symHashes, 0, symHashes, 0, Symmetry.COUNT);
+        nnue = (Nnue.NETWORK != null) ? Nnue.NETWORK.newAccumulator(this) : null;
     }
 
     public RoadTable getRoadTable() {
         return roadTable;
     }
 
+    /** Incrementally maintained network inputs, or null when no network is loaded. */
+    Nnue.Accumulator getNnue() {
+        return nnue;
+    }
+
     int[] getBattle() {
         return battle;
     }
 
+    /** Hashes of this position under all 8 symmetries; do not modify. */
+    long[] getSymmetryHashes() {
+        return symHashes;
+    }
+
+    /** Key shared by every rotation/reflection of this position (side to move included). */
+    public long canonicalHash() {
+        return Symmetry.canonicalKey(symHashes);
+    }
+
+    /** A transform mapping this position onto its canonical form. */
+    public int canonicalTransform() {
+        return Integer.numberOfTrailingZeros(Symmetry.canonicalMask(symHashes));
+    }
+
     /**
      * Returns how many stones are minimally required (1/2/3) to eliminate all opponent 4/5-roads
      * against {@code threatenedColor}. 0 means there is no immediate 4/5-road threat.
@@ -53,9 +83,8 @@ public final class BoardPro extends Board {
 
         RoadSet probeSet = !opponentFour.isEmpty() ? opponentFour : opponentFive;
         Road probeRoad = probeSet.iterator().next();
-        for (int i = 0; i < 6; i++) {
-            int pos = probeRoad.cellAt(i);
-            if (get(pos) != PieceColor.EMPTY) continue;
+        for (int m = RoadPattern.emptyMask(probeRoad.getPattern()); m != 0; m &= m - 1) {
+            int pos = probeRoad.cellAt(Integer.numberOfTrailingZeros(m));
             roadTable.applyStone(pos, threatenedColor);
             int t = opponentFour.size() + opponentFive.size();
             roadTable.revertStone(pos, threatenedColor);
@@ -89,9 +118,8 @@ public final class BoardPro extends Board {
     }
 
     private void collectEmptyCells(Road road, ArrayList<Integer> out, boolean[] visited) {
-        for (int i = 0; i < 6; i++) {
-            int pos = road.cellAt(i);
-            if (get(pos) != PieceColor.EMPTY) continue;
+        for (int m = RoadPattern.emptyMask(road.getPattern()); m != 0; m &= m - 1) {
+            int pos = road.cellAt(Integer.numberOfTrailingZeros(m));
             if (visited[pos]) continue;
             visited[pos] = true;
             out.add(pos);
@@ -105,6 +133,11 @@ public final class BoardPro extends Board {
         roadTable.applyMove(mov, mover);
         updateBattleForMove(mov.index1());
         updateBattleForMove(mov.index2());
+        updateSymmetryHashes(mov, mover);
+        if (nnue != null) {
+            nnue.add(mov.index1(), mover);
+            if (Move.validSquare(mov.index2())) nnue.add(mov.index2(), mover);
+        }
     }
 
     @Override
@@ -116,6 +149,25 @@ public final class BoardPro extends Board {
         roadTable.revertMove(last, whoseMove());
         updateBattleForUndo(last.index1());
         updateBattleForUndo(last.index2());
+        updateSymmetryHashes(last, whoseMove());
+        if (nnue != null) {
+            nnue.remove(last.index1(), whoseMove());
+            if (Move.validSquare(last.index2())) nnue.remove(last.index2(), whoseMove());
+        }
+    }
+
+    // XOR is its own inverse, so the same update serves makeMove and undo.
+    private void updateSymmetryHashes(Move mov, PieceColor mover) {
+        int a = mov.index1();
+        int b = mov.index2();
+        boolean hasSecond = Move.validSquare(b);
+        long turn = Symmetry.turnKey();
+        for (int t = 0; t < Symmetry.COUNT; t++) {
+            int[] perm = Symmetry.PERM[t];
+            long h = symHashes[t] ^ turn ^ Symmetry.key(perm[a], mover);
+            if (hasSecond) h ^= Symmetry.key(perm[b], mover);
+            symHashes[t] = h;
+        }
     }
 
     private void updateBattleForMove(int pos) {
@@ -0,0 +1,87 @@
+package stud.g06;
+
+/**
+ * A point in time after which a search should stop, plus a cancellation flag.
+ *
+ * <p>Search loops call {@link #expired()}, which reads a volatile flag and only consults
+ * {@link System#nanoTime()} once every {@value #POLL_STRIDE} calls, so it is cheap enough for the
+ * innermost pair loops. Coarse checks between phases or iterations use {@link #reached()}, which always
+ * looks at the clock.
+ *
+ * <p>A deadline derived with {@link #within(long)} or {@link #fork()} also expires when its parent is
+ * cancelled, which is how parallel root workers are stopped. The poll counter is not thread-safe: each
+ * thread should poll its own {@link #fork()}.
+ */
+public final class Deadline {
+    private static final int POLL_STRIDE = 16;
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final Deadline parent;
+    private final long atNanos;
+    private volatile boolean expired;
+    private int polls;
+
+    private Deadline(Deadline parent, long atNanos) {
+        this.parent = parent;
+        this.atNanos = atNanos;
+    }
+
+    /** Expires {@code ms} milliseconds after {@code startNanos} (a {@link System#nanoTime()} reading). */
+    public static Deadline at(long startNanos, long ms) {
+        return new Deadline(null, saturatedAdd(startNanos, ms * 1_000_000L));
+    }
+
+    /** Expires {@code ms} milliseconds from now. */
+    public static Deadline after(long ms) {
+        return at(System.nanoTime(), ms);
+    }
+
+    /** Expires only when cancelled. */
+    public static Deadline never() {
+        return new Deadline(null, NEVER);
+    }
+
+    /** The earlier of this deadline and {@code ms} from now; cancelled together with this one. */
+    public Deadline within(long ms) {
+        return new Deadline(this, Math.min(atNanos, saturatedAdd(System.nanoTime(), ms * 1_000_000L)));
+    }
+
+    /** The same instant with its own poll counter, for handing to another thread. */
+    public Deadline fork() {
+        return new Deadline(this, atNanos);
+    }
+
+    /** Cheap check for hot loops; may notice the deadline up to {@value #POLL_STRIDE} calls late. */
+    public boolean expired() {
+        if (expired) return true;
+        if (++polls < POLL_STRIDE) return false;
+        polls = 0;
+        return reached();
+    }
+
+    /** Exact check against the clock and any cancellation. */
+    public boolean reached() {
+        if (expired) return true;
+        if ((parent != null && parent.reached()) || (atNanos != NEVER && System.nanoTime() - atNanos >= 0)) {
+            expired = true;
+            return true;
+        }
+        return false;
+    }
+
+    public void cancel() {
+        expired = true;
+    }
+
+    /** Milliseconds left, 0 once expired; {@code Long.MAX_VALUE} for {@link #never()}. */
+    public long remainingMs() {
+        if (reached()) return 0;
+        if (atNanos == NEVER) return Long.MAX_VALUE;
+        return Math.max(0, (atNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long r = a + b;
+        return ((a ^ r) & (b ^ r)) < 0 ? NEVER : r;
+    }
+}
@@ -0,0 +1,256 @@
+package stud.g06;
+
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Speed benchmarks for the board, road table, move generation, evaluation and fixed-depth search, over positions
+ * taken from recorded games.
+ *
+ * <p>Each benchmark is an operation applied to every corpus position in turn. After {@code perf.warmup} untimed
+ * iterations, {@code perf.iterations} timed iterations each repeat whole passes over the corpus for at least
+ * {@code perf.iterationMs}; the score is the mean time per operation with a 99.9% confidence half-width, and the
+ * search benchmarks also report nodes per second. Results go to stdout and, when an output file is given, to a
+ * JSON array in the shape JMH writes ({@code benchmark}, {@code mode}, {@code primaryMetric},
+ * {@code secondaryMetrics}), one benchmark per line. With {@code perf.baseline=<old.json>} each score is also
+ * compared with the same benchmark in an earlier result file.
+ *
+ * <p>Search runs through the fixed-work entry points of {@link AI} (no clock, an empty table per call, no
+ * forced-win cache), so a benchmark does the same work on every run and node counts are comparable between
+ * commits. The JVM is not forked per benchmark as JMH would; run one filter at a time for the cleanest numbers.
+ *
+ * <p>Usage:
+ * <pre>
+ *   java -cp lib/aiFramework.jar:out stud.g06.EngineBench games.g6gs [results.json]
+ * </pre>
+ * Properties: {@code perf.filter} (regex on benchmark names), {@code perf.positions} (64), {@code perf.minPly}
+ * (4), {@code perf.depth} (3, negamax), {@code perf.dtssDepth} (5), {@code perf.warmup} (3),
+ * {@code perf.iterations} (5), {@code perf.iterationMs} (1000) and {@code perf.baseline}.
+ */
+public final class EngineBench {
+    private static final Pattern RESULT_LINE =
+            Pattern.compile("\"benchmark\"\\s*:\\s*\"([^\"]+)\".*?\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*([-0-9.eE+]+)");
+
+    // Results feed this so the JIT cannot drop the measured work.
+    private static volatile long sink;
+
+    private EngineBench() {}
+
+    /** One corpus position with its own engine and precomputed operands. */
+    private static final class Position {
+        final BoardPro board;
+        final AI engine = new AI();
+        final PieceColor me;
+        final Move move;
+        final int cell;
+
+        Position(BoardPro board) {
+            this.board = board;
+            this.me = board.whoseMove();
+            engine.setPosition(board);
+            List<Move> candidates = engine.rootCandidates();
+            this.move = candidates.isEmpty() ? null : candidates.get(0);
+            this.cell = (move != null) ? move.index1() : -1;
+        }
+    }
+
+    private static final class Benchmark {
+        final String name;
+        final ToLongFunction<Position> op;
+        final boolean countsNodes;
+
+        Benchmark(String name, boolean countsNodes, ToLongFunction<Position> op) {
+            this.name = name;
+            this.countsNodes = countsNodes;
+            this.op = op;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: EngineBench <records> [results.json]");
+            System.exit(2);
+        }
+        Pattern filter = Pattern.compile(System.getProperty("perf.filter", ".*"));
+        int maxPositions = Integer.getInteger("perf.positions", 64);
+        int minPly = Integer.getInteger("perf.minPly", 4);
+        int depth = Integer.getInteger("perf.depth", 3);
+        int dtssDepth = Integer.getInteger("perf.dtssDepth", 5);
+        int warmup = Integer.getInteger("perf.warmup", 3);
+        int iterations = Math.max(1, Integer.getInteger("perf.iterations", 5));
+        long iterationNanos = Long.getLong("perf.iterationMs", 1000) * 1_000_000L;
+
+        List<Position> corpus = corpus(Paths.get(args[0]), maxPositions, minPly);
+        if (corpus.isEmpty()) {
+            System.err.println("No positions in " + args[0]);
+            System.exit(1);
+        }
+        Map<String, Double> baseline = readBaseline(System.getProperty("perf.baseline", "").trim());
+
+        List<Benchmark> benchmarks = List.of(
+                new Benchmark("roadTable.applyRevertStone", false, p -> {
+                    RoadTable rt = p.board.getRoadTable();
+                    rt.applyStone(p.cell, p.me);
+                    rt.revertStone(p.cell, p.me);
+                    return rt.getRoadsByCount()[1][0].size();
+                }),
+                new Benchmark("boardPro.makeUndo", false, p -> {
+                    p.board.makeMove(p.move);
+                    p.board.undo();
+                    return p.board.getSymmetryHashes()[0];
+                }),
+                new Benchmark("boardPro.copy", false, p -> new BoardPro(p.board).getSymmetryHashes()[0]),
+                new Benchmark("boardPro.countAllThreats", false, p -> p.board.countAllThreats(p.me)),
+                new Benchmark("ai.genMovesRoot", false, p -> p.engine.rootCandidates().size()),
+                new Benchmark("ai.generateDoubleThreatMoves", false, p -> p.engine.doubleThreatMoves().size()),
+                new Benchmark("ai.evalFromRoadTable", false, p -> p.engine.staticEval()),
+                new Benchmark("search.negamax.d" + depth, true, p -> p.engine.fixedDepthNodes(depth)),
+                new Benchmark("search.dtss.d" + dtssDepth, true, p -> p.engine.fixedDepthDtssNodes(dtssDepth)));
+
+        System.out.printf(Locale.ROOT, "%d positions, %d warmup + %d x %d ms iterations%n",
+                corpus.size(), warmup, iterations, iterationNanos / 1_000_000L);
+        ArrayList<String> json = new ArrayList<>();
+        for (Benchmark b : benchmarks) {
+            if (!filter.matcher(b.name).find()) continue;
+            for (int i = 0; i < warmup; i++) iteration(b, corpus, iterationNanos);
+            double[] nsPerOp = new double[iterations];
+            double[] nodesPerSec = new double[iterations];
+            for (int i = 0; i < iterations; i++) {
+                long[] r = iteration(b, corpus, iterationNanos);
+                nsPerOp[i] = (double) r[1] / r[0];
+                nodesPerSec[i] = r[2] * 1e9 / r[1];
+            }
+            double score = mean(nsPerOp);
+            double error = error(nsPerOp);
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-34s %14.1f +- %-10.1f ns/op",
+                    b.name, score, error));
+            if (b.countsNodes) {
+                line.append(String.format(Locale.ROOT, "  %12.0f nodes/s", mean(nodesPerSec)));
+            }
+            Double old = baseline.get(b.name);
+            if (old != null) line.append(String.format(Locale.ROOT, "  (%+.1f%% vs baseline)", 100 * (score / old - 1)));
+            System.out.println(line);
+            json.add(toJson(b, nsPerOp, nodesPerSec, iterations, warmup, iterationNanos));
+        }
+
+        if (args.length >= 2) {
+            Path out = Paths.get(args[1]);
+            try (BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+                w.write("[\n");
+                for (int i = 0; i < json.size(); i++) {
+                    w.write(json.get(i));
+                    w.write(i + 1 < json.size() ? ",\n" : "\n");
+                }
+                w.write("]\n");
+            }
+            System.out.println("Wrote " + out);
+        }
+    }
+
+    /** Returns {ops, elapsed nanos, nodes}. */
+    private static long[] iteration(Benchmark b, List<Position> corpus, long nanos) {
+        long ops = 0;
+        long nodes = 0;
+        long acc = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (Position p : corpus) {
+                long r = b.op.applyAsLong(p);
+                if (b.countsNodes) nodes += r;
+                acc += r;
+            }
+            ops += corpus.size();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < nanos);
+        sink += acc;
+        return new long[] {ops, elapsed, nodes};
+    }
+
+    // Every position from ply minPly on of each game, up to max, skipping finished and threatened ones (whose
+    // operands would be degenerate).
+    private static List<Position> corpus(Path file, int max, int minPly) throws IOException {
+        ArrayList<Position> out = new ArrayList<>();
+        for (GameRecords.Record r : GameRecords.read(file)) {
+            BoardPro board = new BoardPro();
+            for (int ply = 0; ply < r.moves.size() && out.size() < max; ply++) {
+                if (board.gameOver()) break;
+                PieceColor me = board.whoseMove();
+                if (ply >= minPly && board.countAllThreats(me) == 0 && board.countAllThreats(me.opposite()) == 0) {
+                    Position p = new Position(new BoardPro(board));
+                    if (p.move != null) out.add(p);
+                }
+                Move m = r.moves.get(ply);
+                if (!board.legalMove(m)) break;
+                board.makeMove(m);
+            }
+            if (out.size() >= max) break;
+        }
+        return out;
+    }
+
+    private static String toJson(
+            Benchmark b, double[] nsPerOp, double[] nodesPerSec, int iterations, int warmup, long iterationNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"benchmark\":\"").append(b.name).append("\",\"mode\":\"avgt\"")
+                .append(",\"warmupIterations\":").append(warmup)
+                .append(",\"measurementIterations\":").append(iterations)
+                .append(",\"measurementTime\":\"").append(iterationNanos / 1_000_000L).append(" ms\"")
+                .append(",\"primaryMetric\":").append(metric(nsPerOp, "ns/op"));
+        sb.append(",\"secondaryMetrics\":{");
+        if (b.countsNodes) sb.append("\"nodes/s\":").append(metric(nodesPerSec, "nodes/s"));
+        sb.append("}}");
+        return sb.toString();
+    }
+
+    private static String metric(double[] values, String unit) {
+        StringBuilder raw = new StringBuilder("[[");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) raw.append(',');
+            raw.append(String.format(Locale.ROOT, "%.3f", values[i]));
+        }
+        raw.append("]]");
+        return String.format(Locale.ROOT, "{\"score\":%.3f,\"scoreError\":%.3f,\"scoreUnit\":\"%s\",\"rawData\":%s}",
+                mean(values), error(values), unit, raw);
+    }
+
+    private static Map<String, Double> readBaseline(String file) throws IOException {
+        HashMap<String, Double> out = new HashMap<>();
+        if (file.isEmpty()) return out;
+        for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+            Matcher m = RESULT_LINE.matcher(line);
+            if (m.find()) out.put(m.group(1), Double.parseDouble(m.group(2)));
+        }
+        return out;
+    }
+
+    private static double mean(double[] v) {
+        double s = 0;
+        for (double x : v) s += x;
+        return s / v.length;
+    }
+
+    // Half-width of a 99.9% normal confidence interval of the mean.
+    private static double error(double[] v) {
+        if (v.length < 2) return Double.NaN;
+        double m = mean(v);
+        double ss = 0;
+        for (double x : v) ss += (x - m) * (x - m);
+        return 3.291 * Math.sqrt(ss / (v.length - 1) / v.length);
+    }
+}
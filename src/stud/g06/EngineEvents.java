@@ -0,0 +1,154 @@
+package stud.g06;
+
+import core.board.PieceColor;
+import core.game.Move;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the stages of a G06 move decision, so that a recording such as
+ * {@code java -XX:StartFlightRecording=filename=bench.jfr ...} shows the engine's phases on the same timeline as GC,
+ * allocation and CPU samples. The events are under the "G06" category in JDK Mission Control.
+ *
+ * <p>A search begins an event, does its work and hands the event to one of the {@code commit} methods here, which
+ * fill in the fields only when {@link Event#shouldCommit()} says the event is enabled and over its threshold. While
+ * no recording is running the events are never filled in and the JIT removes the empty allocations, so the engine
+ * pays nothing measurable. Stack traces are off: the call sites are fixed.
+ */
+final class EngineEvents {
+    private EngineEvents() {}
+
+    @Name("stud.g06.SearchIteration")
+    @Label("Search Iteration")
+    @Description("One depth of iterative deepening at the root")
+    @Category({"G06", "Search"})
+    @StackTrace(false)
+    static final class SearchIteration extends Event {
+        @Label("Depth")
+        int depth;
+
+        @Label("Score")
+        int score;
+
+        @Label("Nodes")
+        long nodes;
+
+        @Label("Best Move")
+        String bestMove;
+    }
+
+    @Name("stud.g06.DtssRun")
+    @Label("DTSS Run")
+    @Description("One double-threat space search for a forced win")
+    @Category({"G06", "Search"})
+    @StackTrace(false)
+    static final class DtssRun extends Event {
+        @Label("Attacker")
+        String attacker;
+
+        @Label("Depth Limit")
+        @Description("Plies the run was allowed to search")
+        int depthLimit;
+
+        @Label("Depth Reached")
+        @Description("Deepest ply the search visited, or the depth the cached entry was recorded at")
+        int depthReached;
+
+        @Label("Result")
+        @Description("PROVEN, FAILED, TIMEOUT, or CACHED_WIN / CACHED_NO_WIN when answered by the forced-win cache")
+        String result;
+
+        @Label("Nodes")
+        long nodes;
+    }
+
+    @Name("stud.g06.SafetyCheck")
+    @Label("Safety Check")
+    @Description("Root safety pass: candidates checked against an opponent DTSS win")
+    @Category({"G06", "Search"})
+    @StackTrace(false)
+    static final class SafetyCheck extends Event {
+        @Label("Candidates Checked")
+        int checked;
+
+        @Label("Timeouts")
+        int timeouts;
+
+        @Label("Safe Move")
+        String safeMove;
+    }
+
+    @Name("stud.g06.MoveCommitted")
+    @Label("Move Committed")
+    @Description("A move played by the engine, with the phase that produced it")
+    @Category({"G06"})
+    @StackTrace(false)
+    static final class MoveCommitted extends Event {
+        @Label("Ply")
+        int ply;
+
+        @Label("Move")
+        String move;
+
+        @Label("Phase")
+        String phase;
+
+        @Label("Depth")
+        int depth;
+
+        @Label("Score")
+        int score;
+
+        @Label("Nodes")
+        long nodes;
+    }
+
+    static void commit(SearchIteration e, int depth, int score, long nodes, Move best) {
+        if (!e.shouldCommit()) return;
+        e.depth = depth;
+        e.score = score;
+        e.nodes = nodes;
+        e.bestMove = String.valueOf(best);
+        e.commit();
+    }
+
+    static void commit(DtssRun e, PieceColor attacker, int depthLimit, int depthReached, String result, long nodes) {
+        if (!e.shouldCommit()) return;
+        e.attacker = attacker.name();
+        e.depthLimit = depthLimit;
+        e.depthReached = depthReached;
+        e.result = result;
+        e.nodes = nodes;
+        e.commit();
+    }
+
+    /** A run answered by the forced-win store; the stored depth is looked up only when the event is recorded. */
+    static void commitCached(DtssRun e, PieceColor attacker, int depthLimit, String result, ForcedWinStore store,
+            long key) {
+        if (!e.shouldCommit()) return;
+        commit(e, attacker, depthLimit, store.storedDepth(key, attacker), result, 0);
+    }
+
+    static void commit(SafetyCheck e, int checked, int timeouts, Move safe) {
+        if (!e.shouldCommit()) return;
+        e.checked = checked;
+        e.timeouts = timeouts;
+        e.safeMove = (safe != null) ? safe.toString() : null;
+        e.commit();
+    }
+
+    static void commit(MoveCommitted e, SearchReport r, int ply) {
+        if (!e.shouldCommit()) return;
+        e.ply = ply;
+        e.move = String.valueOf(r.move());
+        e.phase = r.phase().name();
+        e.depth = r.depth();
+        e.score = r.score();
+        e.nodes = r.nodes();
+        e.commit();
+    }
+}
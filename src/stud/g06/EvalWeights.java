@@ -0,0 +1,80 @@
+package stud.g06;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Road weights of the static evaluation: {@code roadScore[n]} for each own road holding {@code n} stones and no
+ * opponent stone, {@code roadScoreDef[n]} for each such opponent road.
+ *
+ * <p>The built-in values are the hand-tuned defaults. {@code -Dg06.weights=<file>} replaces them at startup with a
+ * file written by {@link TexelTuner}: plain text, one {@code name v0 v1 ... v6} line per array, {@code #} comments.
+ */
+final class EvalWeights {
+    static final String HEADER = "# g06 eval weights v1";
+
+    static final EvalWeights DEFAULT = new EvalWeights(
+            new int[] {0, 9, 520, 2070, 7890, 10020, 1000000},
+            new int[] {0, 3, 480, 2670, 3887, 4900, 1000000});
+
+    final int[] roadScore;
+    final int[] roadScoreDef;
+
+    EvalWeights(int[] roadScore, int[] roadScoreDef) {
+        if (roadScore.length != 7 || roadScoreDef.length != 7) {
+            throw new IllegalArgumentException("expected 7 weights per array");
+        }
+        this.roadScore = roadScore;
+        this.roadScoreDef = roadScoreDef;
+    }
+
+    /** The weights named by {@code g06.weights}, or {@link #DEFAULT} when unset or unreadable. */
+    static EvalWeights loadDefault() {
+        String raw = System.getProperty("g06.weights", "").trim();
+        if (raw.isEmpty()) return DEFAULT;
+        Path path = Paths.get(raw);
+        try {
+            return load(path);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("G06: ignoring eval weights " + path + ": " + e.getMessage());
+            return DEFAULT;
+        }
+    }
+
+    static EvalWeights load(Path path) throws IOException {
+        int[] score = DEFAULT.roadScore.clone();
+        int[] def = DEFAULT.roadScoreDef.clone();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s+");
+            int[] target;
+            if (parts[0].equals("roadScore")) target = score;
+            else if (parts[0].equals("roadScoreDef")) target = def;
+            else throw new IllegalArgumentException("unknown weights " + parts[0]);
+            if (parts.length != 8) throw new IllegalArgumentException("expected 7 values: " + line);
+            for (int i = 0; i < 7; i++) target[i] = Integer.parseInt(parts[i + 1]);
+        }
+        return new EvalWeights(score, def);
+    }
+
+    void save(Path path) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            out.write("roadScore " + join(roadScore));
+            out.newLine();
+            out.write("roadScoreDef " + join(roadScoreDef));
+            out.newLine();
+        }
+    }
+
+    private static String join(int[] values) {
+        return Arrays.toString(values).replaceAll("[\\[\\],]", "");
+    }
+}
@@ -0,0 +1,261 @@
+package stud.g06;
+
+import core.board.PieceColor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cache of DTSS results keyed by canonical position hash, optionally persisted between games and runs.
+ *
+ * <p>Entries live off-heap in a direct buffer organised as 4-way buckets; a full bucket evicts its least recently
+ * used entry. Two kinds of result are kept: a proven win for the attacker (with the winning first move in the
+ * canonical frame of {@link Symmetry}) and "no forced win up to depth d", recorded only for searches that finished
+ * within their budget.
+ *
+ * <p>A "no win" result only holds for the DTSS move generation that searched it, which depends on the code
+ * ({@code VERSION}) and on the {@code g06.dtssMaxPoints} / {@code g06.dtssMaxMoves} limits. The limits are packed
+ * into a generation key that every "no win" entry carries; entries of another generation are never returned.
+ * Proven wins hold whatever generation found them.
+ *
+ * <p>With {@code -Dg06.dtssStore=<file>} the store is loaded from an append-only file at startup and new results are
+ * appended asynchronously after each game (and on JVM exit). File layout: a 12-byte header ({@code MAGIC},
+ * {@code VERSION}, generation key of the process that created the file) followed by 20-byte records
+ * {@code long key, int packedMove, byte attacker, byte result, byte depth, byte 0, int generation}; later records
+ * override earlier ones. Appends hold an exclusive {@link FileLock}, so bench worker processes sharing the file
+ * (the property is forwarded to them) write whole records and exactly one header. A file of another version is
+ * left untouched and the store runs in memory only. Without the property the cache is in-memory only.
+ */
+final class ForcedWinStore {
+    static final int UNKNOWN = -1;
+    static final int NO_WIN = -2;
+
+    private static final int MAGIC = 0x47364657; // "G6FW"
+    // Bump when DTSS move generation changes (2: forcing pairs and relevance-zone pruning); the tunable limits are
+    // covered by the generation key instead.
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 12;
+    private static final int RECORD_BYTES = 20;
+
+    private static final int WAYS = 4;
+    private static final int ENTRY_BYTES = 32;
+    private static final byte RESULT_WIN = 1;
+    private static final byte RESULT_NO_WIN = 2;
+
+    private final ByteBuffer table;
+    private final int bucketMask;
+    private final int generation;
+    private long clock;
+
+    private final Path file;
+    private final Object fileLock = new Object();
+    private final ArrayList<long[]> pending = new ArrayList<>();
+    private final ExecutorService writer;
+
+    private ForcedWinStore(int capacity, int generation, Path file) {
+        int buckets = Integer.highestOneBit(Math.max(WAYS, capacity) / WAYS);
+        this.table = ByteBuffer.allocateDirect(buckets * WAYS * ENTRY_BYTES);
+        this.bucketMask = buckets - 1;
+        this.generation = generation;
+        this.file = file;
+        this.writer =
+                (file == null)
+                        ? null
+                        : Executors.newSingleThreadExecutor(
+                                r -> {
+                                    Thread t = new Thread(r, "G06-ForcedWinStore");
+                                    t.setDaemon(true);
+                                    return t;
+                                });
+    }
+
+    /**
+     * Store configured by {@code g06.dtssStore} (file) and {@code g06.dtssStore.entries} (capacity), for DTSS that
+     * generates at most {@code maxPoints} attack points and {@code maxMoves} moves per node.
+     */
+    static ForcedWinStore openDefault(int maxPoints, int maxMoves) {
+        int capacity = Integer.getInteger("g06.dtssStore.entries", 1 << 18);
+        int generation = (maxPoints << 16) | maxMoves;
+        String raw = System.getProperty("g06.dtssStore", "").trim();
+        if (raw.isEmpty()) return new ForcedWinStore(capacity, generation, null);
+
+        ForcedWinStore store = new ForcedWinStore(capacity, generation, Paths.get(raw));
+        if (!store.load()) return new ForcedWinStore(capacity, generation, null);
+        Runtime.getRuntime().addShutdownHook(new Thread(store::flush, "G06-ForcedWinStore-Exit"));
+        return store;
+    }
+
+    /**
+     * Returns the packed winning move for {@code attacker} to move in position {@code key}, {@link #NO_WIN} if a
+     * completed search of at least {@code depth} found none, or {@link #UNKNOWN}.
+     */
+    synchronized int probe(long key, PieceColor attacker, int depth) {
+        int off = find(key, attackerCode(attacker));
+        if (off < 0) return UNKNOWN;
+        table.putLong(off + 8, ++clock);
+        byte result = table.get(off + 21);
+        if (result == RESULT_WIN) return table.getInt(off + 16);
+        return (table.get(off + 22) >= depth && table.getInt(off + 24) == generation) ? NO_WIN : UNKNOWN;
+    }
+
+    /** Returns the depth the entry for {@code attacker} to move in {@code key} was recorded at, or -1 if none. */
+    synchronized int storedDepth(long key, PieceColor attacker) {
+        int off = find(key, attackerCode(attacker));
+        return off < 0 ? -1 : table.get(off + 22);
+    }
+
+    synchronized void storeWin(long key, PieceColor attacker, int depth, int packedMove) {
+        if (put(key, attackerCode(attacker), RESULT_WIN, depth, packedMove, generation)) {
+            pending.add(new long[]{key, packedMove, attackerCode(attacker), RESULT_WIN, depth});
+        }
+    }
+
+    synchronized void storeNoWin(long key, PieceColor attacker, int depth) {
+        if (put(key, attackerCode(attacker), RESULT_NO_WIN, depth, 0, generation)) {
+            pending.add(new long[]{key, 0, attackerCode(attacker), RESULT_NO_WIN, depth});
+        }
+    }
+
+    /** Schedules new results for appending to the backing file; no-op for in-memory stores. */
+    void flushAsync() {
+        if (writer == null) return;
+        writer.execute(this::flush);
+    }
+
+    void flush() {
+        if (file == null) return;
+        ArrayList<long[]> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+        // The monitor orders writers in this JVM (a second in-process FileLock would throw); the file lock orders
+        // them against other processes.
+        synchronized (fileLock) {
+            try (FileChannel ch =
+                    FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = ch.lock();
+                try {
+                    ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + batch.size() * RECORD_BYTES);
+                    if (ch.size() < HEADER_BYTES) {
+                        ch.truncate(0);
+                        buf.putInt(MAGIC).putInt(VERSION).putInt(generation);
+                    }
+                    for (long[] r : batch) {
+                        buf.putLong(r[0]).putInt((int) r[1]).put((byte) r[2]).put((byte) r[3]).put((byte) r[4])
+                                .put((byte) 0).putInt(generation);
+                    }
+                    buf.flip();
+                    long position = ch.size();
+                    while (buf.hasRemaining()) position += ch.write(buf, position);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                System.err.println("G06: cannot write DTSS store " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Loads the backing file, if it exists, under a shared lock. Returns false, leaving the file untouched, when it
+     * is not a store of this version; the caller then keeps results in memory only.
+     */
+    private boolean load() {
+        if (!Files.isRegularFile(file)) return true;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            FileLock lock = ch.lock(0, Long.MAX_VALUE, true);
+            try {
+                long size = ch.size();
+                if (size == 0) return true;
+                ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (size < HEADER_BYTES || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+                    System.err.println("G06: DTSS store " + file + " is not a version " + VERSION
+                            + " store; not using it (move it aside to start a new one)");
+                    return false;
+                }
+                long records = (size - HEADER_BYTES) / RECORD_BYTES;
+                for (long i = 0; i < records; i++) {
+                    int off = (int) (HEADER_BYTES + i * RECORD_BYTES);
+                    put(buf.getLong(off), buf.get(off + 12), buf.get(off + 13), buf.get(off + 14), buf.getInt(off + 8),
+                            buf.getInt(off + 16));
+                }
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            System.err.println("G06: cannot read DTSS store " + file + ": " + e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Inserts or upgrades an entry; returns whether anything changed. "No win" results of another generation are
+     * ignored.
+     */
+    private boolean put(long key, byte attacker, byte result, int depth, int packedMove, int gen) {
+        if (result == RESULT_NO_WIN && gen != generation) return false;
+        int off = find(key, attacker);
+        if (off >= 0) {
+            byte old = table.get(off + 21);
+            if (old == RESULT_WIN) return false;
+            if (result == RESULT_NO_WIN && table.get(off + 22) >= depth) return false;
+        } else {
+            off = victim(key);
+        }
+        table.putLong(off, key);
+        table.putLong(off + 8, ++clock);
+        table.putInt(off + 16, packedMove);
+        table.put(off + 20, attacker);
+        table.put(off + 21, result);
+        table.put(off + 22, (byte) Math.min(depth, Byte.MAX_VALUE));
+        table.put(off + 23, (byte) 1);
+        table.putInt(off + 24, gen);
+        return true;
+    }
+
+    private int find(long key, byte attacker) {
+        int base = bucketOf(key);
+        for (int w = 0; w < WAYS; w++) {
+            int off = base + w * ENTRY_BYTES;
+            if (table.get(off + 23) != 0 && table.getLong(off) == key && table.get(off + 20) == attacker) return off;
+        }
+        return -1;
+    }
+
+    // An empty way if there is one, otherwise the least recently used entry of the bucket.
+    private int victim(long key) {
+        int base = bucketOf(key);
+        int lru = base;
+        long lruStamp = Long.MAX_VALUE;
+        for (int w = 0; w < WAYS; w++) {
+            int off = base + w * ENTRY_BYTES;
+            if (table.get(off + 23) == 0) return off;
+            long stamp = table.getLong(off + 8);
+            if (stamp < lruStamp) {
+                lruStamp = stamp;
+                lru = off;
+            }
+        }
+        return lru;
+    }
+
+    private int bucketOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) ((h >>> 32) & bucketMask) * WAYS * ENTRY_BYTES;
+    }
+
+    private static byte attackerCode(PieceColor attacker) {
+        return (byte) (attacker == PieceColor.BLACK ? 1 : 2);
+    }
+}
@@ -0,0 +1,133 @@
+package stud.g06;
+
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Plain-text game records shared by the offline tools.
+ *
+ * <p>One game per line, moves in {@link Move#toString()} notation (for example {@code HHJH IHKI ...}), separated by
+ * whitespace or commas. Lines starting with {@code #} are comments. {@code key=value} tokens are ignored except
+ * {@code moves=...} and {@code result=white|black|draw}, so the {@code OPENING} lines printed by {@link BenchWorker}
+ * can be used directly. When no result is given it is inferred from the final position where possible.
+ */
+final class GameRecords {
+    /** One recorded game. */
+    static final class Record {
+        final List<Move> moves;
+        /** Winning colour, {@link PieceColor#EMPTY} for a draw, {@code null} when unknown. */
+        final PieceColor winner;
+
+        Record(List<Move> moves, PieceColor winner) {
+            this.moves = moves;
+            this.winner = winner;
+        }
+    }
+
+    private GameRecords() {}
+
+    /**
+     * Reads a text record file, a {@link GameStore} file ({@code .g6gs}) or a {@link SelfPlayData} chunk
+     * ({@code .g6sp}).
+     */
+    static List<Record> read(Path file) throws IOException {
+        if (GameStore.isStore(file)) return GameStore.readRecords(file);
+        if (SelfPlayData.isChunk(file)) return SelfPlayData.readRecords(file);
+        ArrayList<Record> games = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                Record r = parseLine(line);
+                if (r != null && !r.moves.isEmpty()) games.add(r);
+            }
+        }
+        return games;
+    }
+
+    /** Returns the game on {@code line}, or {@code null} for blank and comment lines. */
+    static Record parseLine(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) return null;
+
+        ArrayList<Move> moves = new ArrayList<>();
+        PieceColor winner = null;
+        boolean hasResult = false;
+        for (String token : trimmed.split("\\s+")) {
+            int eq = token.indexOf('=');
+            if (eq >= 0) {
+                if (token.startsWith("result=")) {
+                    winner = parseResult(token.substring(eq + 1));
+                    hasResult = true;
+                    continue;
+                }
+                if (!token.startsWith("moves=")) continue;
+                token = token.substring(eq + 1);
+            }
+            for (String part : token.split(",")) {
+                Move m = parseMove(part);
+                if (m != null) moves.add(m);
+            }
+        }
+        if (!hasResult) winner = inferWinner(moves);
+        return new Record(moves, winner);
+    }
+
+    static String format(List<Move> moves, PieceColor winner) {
+        StringBuilder sb = new StringBuilder(moves.size() * 5 + 16);
+        sb.append("result=").append(formatResult(winner)).append(" moves=");
+        for (int i = 0; i < moves.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(moves.get(i));
+        }
+        return sb.toString();
+    }
+
+    static String formatResult(PieceColor winner) {
+        if (winner == null) return "unknown";
+        if (winner == PieceColor.EMPTY) return "draw";
+        return winner.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static PieceColor parseResult(String s) {
+        switch (s.toLowerCase(Locale.ROOT)) {
+            case "white":
+            case "w":
+                return PieceColor.WHITE;
+            case "black":
+            case "b":
+                return PieceColor.BLACK;
+            case "draw":
+            case "d":
+                return PieceColor.EMPTY;
+            default:
+                return null;
+        }
+    }
+
+    private static PieceColor inferWinner(List<Move> moves) {
+        BoardPro board = new BoardPro();
+        for (Move m : moves) {
+            if (board.gameOver() || !board.legalMove(m)) return null;
+            board.makeMove(m);
+        }
+        return board.gameOver() ? board.whoseMove().opposite() : null;
+    }
+
+    private static Move parseMove(String s) {
+        if (s.length() != 4) return null;
+        for (int i = 0; i < 4; i++) {
+            char ch = s.charAt(i);
+            if (ch < 'A' || ch > Move.MAXCHAR) return null;
+        }
+        return Move.parseMove(s);
+    }
+}
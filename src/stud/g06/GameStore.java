@@ -0,0 +1,491 @@
+package stud.g06;
+
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary game records with a block index, for bench logs and the offline tools.
+ *
+ * <p>File layout (big-endian): an 8-byte header ({@code MAGIC}, {@code VERSION}), then blocks of up to
+ * {@value #BLOCK_GAMES} games, each {@code int games, int bytes} followed by its games, then a footer with one
+ * {@code long offset, int firstGame} entry per block and {@code int blocks, long indexOffset, int INDEX_MAGIC}. A
+ * game is {@code short plies}, {@code byte winner} (0 draw, 1 WHITE, 2 BLACK, 3 unknown), {@code byte endReason}
+ * (the referee's code, {@code ?} when unknown), {@code int whiteMs, int blackMs} of think time (-1 unknown), the
+ * WHITE and BLACK player names as {@code byte length + UTF-8}, and {@code 2 * plies} stone indices as
+ * {@code short}. The first player always holds WHITE.
+ *
+ * <p>A {@link Writer} appends to an existing file: it drops the footer, keeps filling the last block while it has
+ * room, and writes a new footer on close. A file whose footer is missing (an interrupted writer) is still
+ * readable; the reader rebuilds the index from the block headers and ignores a torn last block.
+ *
+ * <p>A {@link Reader} maps the file with {@link FileChannel#map} and hands out {@link GameView}s that decode
+ * fields straight from the mapping, so a scan copies nothing onto the heap. Files larger than one mapping are
+ * mapped in segments of whole blocks.
+ */
+final class GameStore {
+    static final int MAGIC = 0x47364753; // "G6GS"
+    static final int VERSION = 1;
+    static final String SUFFIX = ".g6gs";
+    static final int BLOCK_GAMES = 256;
+
+    private static final int INDEX_MAGIC = 0x47364958; // "G6IX"
+    private static final int HEADER_BYTES = 8;
+    private static final int BLOCK_HEADER_BYTES = 8;
+    private static final int INDEX_ENTRY_BYTES = 12;
+    private static final int FOOTER_BYTES = 16;
+    private static final long MAX_SEGMENT = 1L << 30;
+
+    /** One game to store. */
+    static final class Game {
+        final List<Move> moves;
+        /** Winning colour, {@link PieceColor#EMPTY} for a draw, {@code null} when unknown. */
+        final PieceColor winner;
+        final char endReason;
+        final String white;
+        final String black;
+        final int whiteMs;
+        final int blackMs;
+
+        Game(List<Move> moves, PieceColor winner, char endReason, String white, String black, int whiteMs, int blackMs) {
+            this.moves = moves;
+            this.winner = winner;
+            this.endReason = endReason;
+            this.white = white;
+            this.black = black;
+            this.whiteMs = whiteMs;
+            this.blackMs = blackMs;
+        }
+    }
+
+    private GameStore() {}
+
+    static boolean isStore(Path file) {
+        return file.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    /**
+     * Appends one game under an exclusive file lock, so concurrent bench workers (threads or processes) can share
+     * a file.
+     */
+    static synchronized void append(Path file, Game game) throws IOException {
+        try (FileChannel ch =
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = ch.lock();
+            try (Writer w = new Writer(ch, false)) {
+                w.add(game);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /** All games of {@code file} as plain records, for the tools built on {@link GameRecords}. */
+    static List<GameRecords.Record> readRecords(Path file) throws IOException {
+        ArrayList<GameRecords.Record> out = new ArrayList<>();
+        try (Reader r = new Reader(file)) {
+            r.forEach(g -> out.add(new GameRecords.Record(g.moves(), g.winner())));
+        }
+        return out;
+    }
+
+    // ---------------------------------------------------------------- writing
+
+    /** Appends games to a store file. Not thread-safe. */
+    static final class Writer implements AutoCloseable {
+        private final FileChannel ch;
+        private final boolean ownsChannel;
+        private long[] blockOffsets;
+        private int[] blockFirstGames;
+        private int blocks;
+        private int games;
+        // The open (last) block: where it starts, its games and its payload bytes so far.
+        private long blockStart = -1;
+        private int blockGames;
+        private int blockBytes;
+        private ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+
+        Writer(Path file) throws IOException {
+            this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE),
+                    true);
+        }
+
+        private Writer(FileChannel ch, boolean ownsChannel) throws IOException {
+            this.ch = ch;
+            this.ownsChannel = ownsChannel;
+            Index index = Index.read(ch);
+            if (index == null) {
+                ch.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                writeFully(header, 0);
+                index = new Index(new long[0], new int[0], new int[0], 0, HEADER_BYTES);
+            }
+            blockOffsets = Arrays.copyOf(index.offsets, index.blocks + 1);
+            blockFirstGames = Arrays.copyOf(index.firstGames, index.blocks + 1);
+            blocks = index.blocks;
+            games = index.games;
+            // Drop the footer (and any torn block); reopen the last block if it still has room.
+            ch.truncate(index.dataEnd);
+            if (blocks > 0 && index.counts[blocks - 1] < BLOCK_GAMES) {
+                blocks--;
+                blockStart = blockOffsets[blocks];
+                blockGames = index.counts[blocks];
+                blockBytes = (int) (index.dataEnd - blockStart - BLOCK_HEADER_BYTES);
+            }
+        }
+
+        void add(Game g) throws IOException {
+            if (g.moves.size() > Short.MAX_VALUE) throw new IllegalArgumentException("too many plies");
+            byte[] white = name(g.white);
+            byte[] black = name(g.black);
+            int size = 12 + 2 + white.length + black.length + 4 * g.moves.size();
+            if (blockStart < 0) {
+                blockStart = ch.size();
+                blockGames = 0;
+                blockBytes = 0;
+                ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_BYTES).putInt(0).putInt(0);
+                header.flip();
+                writeFully(header, blockStart);
+            }
+            if (buf.remaining() < size) {
+                flushPending();
+                if (buf.capacity() < size) buf = ByteBuffer.allocate(size);
+            }
+            buf.putShort((short) g.moves.size());
+            buf.put((byte) (g.winner == null ? 3 : g.winner == PieceColor.WHITE ? 1 : g.winner == PieceColor.BLACK ? 2 : 0));
+            buf.put((byte) g.endReason);
+            buf.putInt(g.whiteMs);
+            buf.putInt(g.blackMs);
+            buf.put((byte) white.length).put(white);
+            buf.put((byte) black.length).put(black);
+            for (Move m : g.moves) {
+                buf.putShort((short) m.index1());
+                buf.putShort((short) m.index2());
+            }
+            blockGames++;
+            blockBytes += size;
+            games++;
+            if (blockGames == BLOCK_GAMES) closeBlock();
+        }
+
+        private void flushPending() throws IOException {
+            buf.flip();
+            writeFully(buf, ch.size());
+            buf.clear();
+        }
+
+        private void closeBlock() throws IOException {
+            flushPending();
+            ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_BYTES).putInt(blockGames).putInt(blockBytes);
+            header.flip();
+            writeFully(header, blockStart);
+            if (blocks == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, 2 * blocks + 1);
+                blockFirstGames = Arrays.copyOf(blockFirstGames, 2 * blocks + 1);
+            }
+            blockOffsets[blocks] = blockStart;
+            blockFirstGames[blocks] = games - blockGames;
+            blocks++;
+            blockStart = -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (blockStart >= 0) closeBlock();
+                long indexOffset = ch.size();
+                ByteBuffer footer = ByteBuffer.allocate(blocks * INDEX_ENTRY_BYTES + FOOTER_BYTES);
+                for (int b = 0; b < blocks; b++) footer.putLong(blockOffsets[b]).putInt(blockFirstGames[b]);
+                footer.putInt(blocks).putLong(indexOffset).putInt(INDEX_MAGIC);
+                footer.flip();
+                writeFully(footer, indexOffset);
+            } finally {
+                if (ownsChannel) ch.close();
+            }
+        }
+
+        private void writeFully(ByteBuffer b, long position) throws IOException {
+            while (b.hasRemaining()) position += ch.write(b, position);
+        }
+
+        private static byte[] name(String s) {
+            byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+            return b.length <= 255 ? b : Arrays.copyOf(b, 255);
+        }
+    }
+
+    // ---------------------------------------------------------------- index
+
+    /** Block layout of a file, from its footer or rebuilt from the block headers. */
+    private static final class Index {
+        final long[] offsets;
+        final int[] firstGames;
+        final int[] counts;
+        final int blocks;
+        final int games;
+        final long dataEnd;
+
+        Index(long[] offsets, int[] firstGames, int[] counts, int games, long dataEnd) {
+            this.offsets = offsets;
+            this.firstGames = firstGames;
+            this.counts = counts;
+            this.blocks = offsets.length;
+            this.games = games;
+            this.dataEnd = dataEnd;
+        }
+
+        /** The index of the file open on {@code ch}; null for an empty file. */
+        static Index read(FileChannel ch) throws IOException {
+            long size = ch.size();
+            if (size == 0) return null;
+            ByteBuffer header = readAt(ch, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) throw new IOException("not a game store");
+            if (header.getInt() != VERSION) throw new IOException("unsupported game store version");
+
+            Index fromFooter = readFooter(ch, size);
+            return fromFooter != null ? fromFooter : scan(ch, size);
+        }
+
+        private static Index readFooter(FileChannel ch, long size) throws IOException {
+            if (size < HEADER_BYTES + FOOTER_BYTES) return null;
+            ByteBuffer tail = readAt(ch, size - FOOTER_BYTES, FOOTER_BYTES);
+            int blocks = tail.getInt();
+            long indexOffset = tail.getLong();
+            if (tail.getInt() != INDEX_MAGIC
+                    || blocks < 0
+                    || indexOffset + (long) blocks * INDEX_ENTRY_BYTES + FOOTER_BYTES != size) {
+                return null;
+            }
+            ByteBuffer entries = readAt(ch, indexOffset, blocks * INDEX_ENTRY_BYTES);
+            long[] offsets = new long[blocks];
+            int[] first = new int[blocks];
+            int[] counts = new int[blocks];
+            for (int b = 0; b < blocks; b++) {
+                offsets[b] = entries.getLong();
+                first[b] = entries.getInt();
+            }
+            int games = 0;
+            for (int b = 0; b < blocks; b++) {
+                counts[b] = readAt(ch, offsets[b], 4).getInt();
+                games += counts[b];
+            }
+            return new Index(offsets, first, counts, games, indexOffset);
+        }
+
+        // Walks the block headers; stops at the first incomplete block (a writer that never closed it).
+        private static Index scan(FileChannel ch, long size) throws IOException {
+            ArrayList<long[]> found = new ArrayList<>();
+            long pos = HEADER_BYTES;
+            int games = 0;
+            while (pos + BLOCK_HEADER_BYTES <= size) {
+                ByteBuffer h = readAt(ch, pos, BLOCK_HEADER_BYTES);
+                int count = h.getInt();
+                int bytes = h.getInt();
+                if (count <= 0 || count > BLOCK_GAMES || bytes <= 0 || pos + BLOCK_HEADER_BYTES + bytes > size) break;
+                found.add(new long[] {pos, games, count});
+                games += count;
+                pos += BLOCK_HEADER_BYTES + bytes;
+            }
+            long[] offsets = new long[found.size()];
+            int[] first = new int[found.size()];
+            int[] counts = new int[found.size()];
+            for (int b = 0; b < offsets.length; b++) {
+                offsets[b] = found.get(b)[0];
+                first[b] = (int) found.get(b)[1];
+                counts[b] = (int) found.get(b)[2];
+            }
+            return new Index(offsets, first, counts, games, pos);
+        }
+
+        private static ByteBuffer readAt(FileChannel ch, long position, int n) throws IOException {
+            ByteBuffer b = ByteBuffer.allocate(n);
+            while (b.hasRemaining()) {
+                if (ch.read(b, position + b.position()) < 0) throw new IOException("unexpected end of game store");
+            }
+            b.flip();
+            return b;
+        }
+    }
+
+    // ---------------------------------------------------------------- reading
+
+    /** Memory-mapped, read-only view of a store file. Views it hands out are valid until it is closed. */
+    static final class Reader implements AutoCloseable {
+        private final FileChannel ch;
+        private final Index index;
+        private final MappedByteBuffer[] segments;
+        private final long[] segmentStarts;
+        private final int[] blockSegment;
+
+        Reader(Path file) throws IOException {
+            ch = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                Index idx = Index.read(ch);
+                index = idx != null ? idx : new Index(new long[0], new int[0], new int[0], 0, 0);
+                blockSegment = new int[index.blocks];
+                ArrayList<MappedByteBuffer> maps = new ArrayList<>();
+                ArrayList<Long> starts = new ArrayList<>();
+                int b = 0;
+                while (b < index.blocks) {
+                    long start = index.offsets[b];
+                    long end = blockEnd(b);
+                    int s = maps.size();
+                    blockSegment[b++] = s;
+                    while (b < index.blocks && blockEnd(b) - start <= MAX_SEGMENT) {
+                        end = blockEnd(b);
+                        blockSegment[b++] = s;
+                    }
+                    maps.add(ch.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+                    starts.add(start);
+                }
+                segments = maps.toArray(new MappedByteBuffer[0]);
+                segmentStarts = new long[starts.size()];
+                for (int i = 0; i < segmentStarts.length; i++) segmentStarts[i] = starts.get(i);
+            } catch (IOException | RuntimeException e) {
+                ch.close();
+                throw e;
+            }
+        }
+
+        private long blockEnd(int b) {
+            return b + 1 < index.blocks ? index.offsets[b + 1] : index.dataEnd;
+        }
+
+        int games() {
+            return index.games;
+        }
+
+        /** Calls {@code action} for every game in order with one reused view; do not keep it past the call. */
+        void forEach(Consumer<GameView> action) {
+            GameView view = new GameView();
+            for (int b = 0; b < index.blocks; b++) {
+                ByteBuffer seg = segments[blockSegment[b]];
+                int pos = (int) (index.offsets[b] - segmentStarts[blockSegment[b]]);
+                int count = seg.getInt(pos);
+                pos += BLOCK_HEADER_BYTES;
+                for (int i = 0; i < count; i++) {
+                    view.at(seg, pos);
+                    action.accept(view);
+                    pos += view.size();
+                }
+            }
+        }
+
+        /** Game {@code gameIndex}: a binary search over the block index, then a walk within one block. */
+        GameView get(int gameIndex) {
+            if (gameIndex < 0 || gameIndex >= index.games) throw new IndexOutOfBoundsException("game " + gameIndex);
+            int b = Arrays.binarySearch(index.firstGames, gameIndex);
+            if (b < 0) b = -b - 2;
+            ByteBuffer seg = segments[blockSegment[b]];
+            int pos = (int) (index.offsets[b] - segmentStarts[blockSegment[b]]) + BLOCK_HEADER_BYTES;
+            GameView view = new GameView();
+            for (int i = index.firstGames[b]; ; i++) {
+                view.at(seg, pos);
+                if (i == gameIndex) return view;
+                pos += view.size();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+
+    /** Flyweight over one stored game; every accessor decodes from the mapped bytes. */
+    static final class GameView {
+        private ByteBuffer buf;
+        private int pos;
+
+        private void at(ByteBuffer buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        int plies() {
+            return buf.getShort(pos);
+        }
+
+        /** Winning colour, {@link PieceColor#EMPTY} for a draw, {@code null} when unknown. */
+        PieceColor winner() {
+            switch (buf.get(pos + 2)) {
+                case 0:
+                    return PieceColor.EMPTY;
+                case 1:
+                    return PieceColor.WHITE;
+                case 2:
+                    return PieceColor.BLACK;
+                default:
+                    return null;
+            }
+        }
+
+        char endReason() {
+            return (char) buf.get(pos + 3);
+        }
+
+        int whiteMs() {
+            return buf.getInt(pos + 4);
+        }
+
+        int blackMs() {
+            return buf.getInt(pos + 8);
+        }
+
+        String white() {
+            return string(pos + 12);
+        }
+
+        String black() {
+            return string(pos + 13 + nameLength(pos + 12));
+        }
+
+        /** Stone {@code i} of the game: ply {@code i / 2}, first or second stone. */
+        int stone(int i) {
+            return buf.getShort(stonesStart() + 2 * i);
+        }
+
+        Move move(int ply) {
+            return new Move(stone(2 * ply), stone(2 * ply + 1));
+        }
+
+        List<Move> moves() {
+            int n = plies();
+            ArrayList<Move> out = new ArrayList<>(n);
+            for (int p = 0; p < n; p++) out.add(move(p));
+            return out;
+        }
+
+        private int stonesStart() {
+            int black = pos + 13 + nameLength(pos + 12);
+            return black + 1 + nameLength(black);
+        }
+
+        private int size() {
+            return stonesStart() - pos + 4 * plies();
+        }
+
+        private int nameLength(int at) {
+            return buf.get(at) & 0xFF;
+        }
+
+        private String string(int at) {
+            byte[] b = new byte[nameLength(at)];
+            for (int i = 0; i < b.length; i++) b[i] = buf.get(at + 1 + i);
+            return new String(b, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package stud.g06;
+
+import core.board.Board;
+import core.board.PieceColor;
+import core.game.Game;
+import core.game.GameResult;
+import core.game.Move;
+import core.game.ui.Configuration;
+import core.player.Player;
+
+import java.util.ArrayList;
+
+/**
+ * Game loop for automated play without the framework's {@link Game} thread.
+ *
+ * <p>The framework referee runs every game on its own thread, counts each player's clock with a Swing timer that
+ * fires once a second, and ends a timed-out game with {@code Thread.stop}. Here moves are requested on the calling
+ * thread, each player's remaining time is kept in {@link System#nanoTime()} units, and a G06 engine is handed its
+ * clock as a {@link Deadline} ({@link AI#setGameClock}) so it stops searching in time by itself. A player that
+ * returns after its clock ran out loses with reason {@code T}; one that never returns is not interrupted.
+ *
+ * <p>The rules otherwise follow the framework referee: the first player holds WHITE, a game ends after
+ * {@code maxSteps} moves as a draw ({@code M}), and an exception ({@code E}) or an illegal move ({@code N}) loses.
+ * The result is an ordinary {@link GameResult} added to both players, so existing statistics and the reflective
+ * readers in {@link BenchWorker} work unchanged. Players still join a {@link Game} object because
+ * {@link Player#playGame} is how they reset per-game state; its timers are created but never started, so no AWT
+ * thread is involved.
+ */
+final class HeadlessGame {
+    private final Player first;
+    private final Player second;
+    private final long clockNanos;
+    private final int maxSteps;
+    private final long[] usedNanos = new long[2];
+
+    /** A game under the limits of {@code file.properties} ({@code TimeLimit} seconds, {@code MaxStep}). */
+    HeadlessGame(Player first, Player second) {
+        this(first, second, Configuration.TIME_LIMIT * 1000L, Configuration.MAX_STEP);
+    }
+
+    HeadlessGame(Player first, Player second, long clockMs, int maxSteps) {
+        this.first = first;
+        this.second = second;
+        this.clockNanos = clockMs * 1_000_000L;
+        this.maxSteps = maxSteps;
+    }
+
+    /** Plays the game to the end and returns its result, which has also been added to both players. */
+    GameResult play() {
+        // Sets the colours and lets both players join; the Game itself is never started.
+        new Game(first, second);
+
+        Board board = new Board();
+        ArrayList<Move> moves = new ArrayList<>();
+        long[] left = {clockNanos, clockNanos};
+        String endReason;
+        Move currMove = null;
+        int steps = 1;
+
+        while (true) {
+            if (board.gameOver()) {
+                endReason = "F";
+                break;
+            }
+            if (steps > maxSteps) {
+                endReason = "M";
+                break;
+            }
+
+            boolean firstToMove = board.whoseMove() == PieceColor.WHITE;
+            Player player = firstToMove ? first : second;
+            int side = firstToMove ? 0 : 1;
+            long start = System.nanoTime();
+            if (player instanceof AI) ((AI) player).setGameClock(Deadline.at(start, left[side] / 1_000_000L));
+            Move move;
+            try {
+                move = player.findMove(currMove);
+            } catch (Exception e) {
+                endReason = "E";
+                break;
+            } finally {
+                if (player instanceof AI) ((AI) player).setGameClock(null);
+            }
+            long used = System.nanoTime() - start;
+            usedNanos[side] += used;
+            left[side] -= used;
+            if (left[side] < 0) {
+                endReason = "T";
+                break;
+            }
+
+            if (move == null || !board.legalMove(move)) {
+                endReason = "N";
+                break;
+            }
+            board.makeMove(move);
+            moves.add(move);
+
+            steps++;
+            currMove = move;
+        }
+
+        String winner;
+        if ("M".equals(endReason)) {
+            winner = "NONE";
+        } else {
+            // Whoever is to move has just lost: no reply to a six, or the offending move was theirs.
+            winner = (board.whoseMove() == PieceColor.WHITE) ? second.name() : first.name();
+        }
+        GameResult result = new GameResult(first, second, winner, moves.size(), endReason, moves);
+        first.addGameResult(result);
+        second.addGameResult(result);
+        return result;
+    }
+
+    /** Think time {@code color} used in the game so far, in milliseconds. */
+    long usedMs(PieceColor color) {
+        return usedNanos[color == PieceColor.WHITE ? 0 : 1] / 1_000_000L;
+    }
+}
@@ -0,0 +1,186 @@
+package stud.g06;
+
+import core.board.Board;
+import core.board.PieceColor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Optional efficiently updatable network that corrects the road-count evaluation.
+ *
+ * <p>Input features are (cell, stone) pairs seen from one side: feature {@code 2 * pos} is "own stone at pos" and
+ * {@code 2 * pos + 1} "opponent stone at pos". Each side keeps an {@link Accumulator} of the first layer,
+ * {@code b1 + sum of w1 rows of its active features}, which {@link BoardPro} updates on every make/undo: a move
+ * adds two rows per side, so a position costs {@code 4 * hidden} additions instead of a full layer.
+ *
+ * <p>The output is {@code (dot(crelu(acc[me]) ++ crelu(acc[opp]), w2) + b2) * outputScale / (QA * QB)} where
+ * {@code crelu} clamps to {@code [0, QA]}. The result is added to {@code evalFromRoadTable}, so a network trained on
+ * the residual of the hand-written evaluation refines it and an all-zero network changes nothing.
+ *
+ * <p>File layout (big-endian): {@code MAGIC}, version, hidden size, output scale, then {@code short w1[FEATURES][hidden]},
+ * {@code short b1[hidden]}, {@code short w2[2 * hidden]} and {@code int b2}. The network named by
+ * {@code -Dg06.nnue=<file>} is loaded once per JVM; without it {@link #NETWORK} is null and boards carry no
+ * accumulator.
+ *
+ * <p>The hidden loops are plain array loops over {@code int}/{@code short} that HotSpot's superword pass compiles to
+ * SIMD instructions, which keeps the class free of the incubating Vector API module.
+ */
+final class Nnue {
+    static final int MAGIC = 0x47364E4E; // "G6NN"
+    static final int VERSION = 1;
+    static final int FEATURES = 361 * 2;
+    static final int QA = 127;
+    static final int QB = 64;
+
+    /** The network configured with {@code g06.nnue}, or null. */
+    static final Nnue NETWORK = loadDefault();
+
+    final int hidden;
+    final int outputScale;
+    private final short[] w1;
+    private final short[] b1;
+    private final short[] w2;
+    private final int b2;
+
+    Nnue(int hidden, int outputScale, short[] w1, short[] b1, short[] w2, int b2) {
+        if (hidden <= 0 || w1.length != FEATURES * hidden || b1.length != hidden || w2.length != 2 * hidden) {
+            throw new IllegalArgumentException("inconsistent layer sizes for hidden=" + hidden);
+        }
+        this.hidden = hidden;
+        this.outputScale = outputScale;
+        this.w1 = w1;
+        this.b1 = b1;
+        this.w2 = w2;
+        this.b2 = b2;
+    }
+
+    private static Nnue loadDefault() {
+        String raw = System.getProperty("g06.nnue", "").trim();
+        if (raw.isEmpty()) return null;
+        Path path = Paths.get(raw);
+        try {
+            Nnue net = load(path);
+            System.err.println("G06: loaded network " + path + " (hidden=" + net.hidden + ")");
+            return net;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("G06: ignoring network " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    static Nnue load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) throw new IllegalArgumentException("bad magic");
+            if (in.readInt() != VERSION) throw new IllegalArgumentException("unsupported version");
+            int hidden = in.readInt();
+            int outputScale = in.readInt();
+            if (hidden <= 0 || hidden > 4096) throw new IllegalArgumentException("bad hidden size " + hidden);
+            short[] w1 = readShorts(in, FEATURES * hidden);
+            short[] b1 = readShorts(in, hidden);
+            short[] w2 = readShorts(in, 2 * hidden);
+            int b2 = in.readInt();
+            return new Nnue(hidden, outputScale, w1, b1, w2, b2);
+        }
+    }
+
+    void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(hidden);
+            out.writeInt(outputScale);
+            for (short v : w1) out.writeShort(v);
+            for (short v : b1) out.writeShort(v);
+            for (short v : w2) out.writeShort(v);
+            out.writeInt(b2);
+        }
+    }
+
+    private static short[] readShorts(DataInputStream in, int n) throws IOException {
+        short[] out = new short[n];
+        for (int i = 0; i < n; i++) out[i] = in.readShort();
+        return out;
+    }
+
+    private static int side(PieceColor color) {
+        return color == PieceColor.BLACK ? 0 : 1;
+    }
+
+    /** First-layer sums for both sides of one board. Not thread-safe; each board owns one. */
+    final class Accumulator {
+        // acc[side * hidden + i]; side 0 sees black stones as own, side 1 white.
+        private final int[] acc = new int[2 * hidden];
+
+        /** Recomputes both sides from scratch. */
+        void refresh(Board board) {
+            for (int i = 0; i < hidden; i++) {
+                acc[i] = b1[i];
+                acc[hidden + i] = b1[i];
+            }
+            for (int pos = 0; pos < 361; pos++) {
+                PieceColor c = board.get(pos);
+                if (c != PieceColor.EMPTY) add(pos, c);
+            }
+        }
+
+        void add(int pos, PieceColor color) {
+            int own = 2 * pos * hidden;
+            int opp = own + hidden;
+            boolean black = color == PieceColor.BLACK;
+            addRow(0, black ? own : opp);
+            addRow(hidden, black ? opp : own);
+        }
+
+        void remove(int pos, PieceColor color) {
+            int own = 2 * pos * hidden;
+            int opp = own + hidden;
+            boolean black = color == PieceColor.BLACK;
+            subRow(0, black ? own : opp);
+            subRow(hidden, black ? opp : own);
+        }
+
+        private void addRow(int base, int row) {
+            int[] a = acc;
+            short[] w = w1;
+            for (int i = 0; i < hidden; i++) a[base + i] += w[row + i];
+        }
+
+        private void subRow(int base, int row) {
+            int[] a = acc;
+            short[] w = w1;
+            for (int i = 0; i < hidden; i++) a[base + i] -= w[row + i];
+        }
+
+        /** Network correction in evaluation units from {@code me}'s point of view. */
+        int evaluate(PieceColor me) {
+            int us = side(me) * hidden;
+            int them = (1 - side(me)) * hidden;
+            long dot = (long) b2 + dot(us, 0) + dot(them, hidden);
+            return (int) (dot * outputScale / (QA * QB));
+        }
+
+        private long dot(int base, int weights) {
+            int[] a = acc;
+            short[] w = w2;
+            long sum = 0;
+            for (int i = 0; i < hidden; i++) {
+                int x = Math.min(Math.max(a[base + i], 0), QA);
+                sum += x * w[weights + i];
+            }
+            return sum;
+        }
+    }
+
+    Accumulator newAccumulator(Board board) {
+        Accumulator a = new Accumulator();
+        a.refresh(board);
+        return a;
+    }
+}
@@ -0,0 +1,126 @@
+package stud.g06;
+
+import core.board.Board;
+import core.game.Move;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only opening book: canonical position key to weighted replies.
+ *
+ * <p>File layout (big-endian): a 16-byte header ({@code MAGIC}, version, entry count, reserved) followed by
+ * fixed-size 16-byte entries sorted by key: {@code long key, int packedMove, short count, short weight}. Replies of
+ * one position are adjacent. The file is memory-mapped and binary-searched, so probing is O(log n) and nothing is
+ * copied onto the heap. Keys and moves are in the canonical frame of {@link Symmetry}.
+ *
+ * <p>Files are produced by {@link OpeningBookBuilder}.
+ */
+final class OpeningBook {
+    static final int MAGIC = 0x47364B42; // "G6KB"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    static final OpeningBook EMPTY = new OpeningBook(null, 0);
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(ByteBuffer entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    /**
+     * Maps the book named by {@code g06.book} (default {@code g06.book} in the working directory).
+     * A missing or malformed file yields {@link #EMPTY}.
+     */
+    static OpeningBook loadDefault() {
+        Path path = Paths.get(System.getProperty("g06.book", "g06.book"));
+        if (!Files.isRegularFile(path)) return EMPTY;
+        try {
+            return load(path);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("G06: ignoring opening book " + path + ": " + e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    static OpeningBook load(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = ch.size();
+            if (length < HEADER_BYTES) throw new IllegalArgumentException("truncated header");
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (map.getInt(0) != MAGIC) throw new IllegalArgumentException("bad magic");
+            if (map.getInt(4) != VERSION) throw new IllegalArgumentException("unsupported version");
+            int count = map.getInt(8);
+            if (count < 0 || HEADER_BYTES + (long) count * ENTRY_BYTES > length) {
+                throw new IllegalArgumentException("truncated entries");
+            }
+            map.position(HEADER_BYTES);
+            map.limit(HEADER_BYTES + count * ENTRY_BYTES);
+            ByteBuffer body = map.slice();
+            return new OpeningBook(body, count);
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the best-weighted legal book reply for {@code board}, or {@code null} when the position is not in the
+     * book. Ties on weight prefer the reply seen more often.
+     */
+    Move probe(Board board) {
+        if (size == 0) return null;
+        long[] hashes =
+                (board instanceof BoardPro)
+                        ? ((BoardPro) board).getSymmetryHashes()
+                        : Symmetry.transformedHashes(board);
+        long key = Symmetry.canonicalKey(hashes);
+        int t = Integer.numberOfTrailingZeros(Symmetry.canonicalMask(hashes));
+
+        Move best = null;
+        int bestWeight = -1;
+        int bestCount = -1;
+        for (int i = lowerBound(key); i < size && keyAt(i) == key; i++) {
+            int off = i * ENTRY_BYTES;
+            int weight = entries.getShort(off + 14) & 0xFFFF;
+            int count = entries.getShort(off + 12) & 0xFFFF;
+            if (weight < bestWeight || (weight == bestWeight && count <= bestCount)) continue;
+            Move m = Symmetry.unpackMove(entries.getInt(off + 8), t);
+            if (!board.legalMove(m)) continue;
+            best = m;
+            bestWeight = weight;
+            bestCount = count;
+        }
+        return best;
+    }
+
+    private long keyAt(int i) {
+        return entries.getLong(i * ENTRY_BYTES);
+    }
+
+    private int lowerBound(long key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keyAt(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
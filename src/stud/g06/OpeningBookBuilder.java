@@ -0,0 +1,105 @@
+package stud.g06;
+
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds an {@link OpeningBook} file from self-play or bench game logs ({@link GameRecords} format, for example
+ * written by {@link BenchWorker} with {@code -Dbench.records=games.txt}).
+ *
+ * <p>For the first {@code book.maxPlies} moves of every game with a known result, the reply is credited to the
+ * canonical position it was played in with the mover's game score (win 2, draw 1, loss 0). Replies that never
+ * scored are dropped, as are replies seen fewer than {@code book.minCount} times.
+ *
+ * <p>Usage:
+ * <pre>
+ *   java -cp lib/aiFramework.jar:out -Dbook.maxPlies=8 stud.g06.OpeningBookBuilder g06.book games1.txt [games2.txt ...]
+ * </pre>
+ */
+public final class OpeningBookBuilder {
+    private OpeningBookBuilder() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: OpeningBookBuilder <out.book> <records> [records ...]");
+            System.exit(2);
+        }
+        int maxPlies = Integer.getInteger("book.maxPlies", 8);
+        int minCount = Integer.getInteger("book.minCount", 1);
+
+        // key -> packed canonical move -> {count, weight}
+        TreeMap<Long, TreeMap<Integer, int[]>> book = new TreeMap<>();
+        int used = 0;
+        int skipped = 0;
+        for (int a = 1; a < args.length; a++) {
+            for (GameRecords.Record r : GameRecords.read(Paths.get(args[a]))) {
+                if (r.winner == null) {
+                    skipped++;
+                    continue;
+                }
+                addGame(book, r.moves, r.winner, maxPlies);
+                used++;
+            }
+        }
+
+        int entries = 0;
+        for (TreeMap<Integer, int[]> replies : book.values()) {
+            for (int[] cw : replies.values()) {
+                if (cw[0] >= minCount && cw[1] > 0) entries++;
+            }
+        }
+
+        Path out = Paths.get(args[0]);
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(out)))) {
+            dos.writeInt(OpeningBook.MAGIC);
+            dos.writeInt(OpeningBook.VERSION);
+            dos.writeInt(entries);
+            dos.writeInt(0);
+            for (Map.Entry<Long, TreeMap<Integer, int[]>> e : book.entrySet()) {
+                for (Map.Entry<Integer, int[]> reply : e.getValue().entrySet()) {
+                    int[] cw = reply.getValue();
+                    if (cw[0] < minCount || cw[1] <= 0) continue;
+                    dos.writeLong(e.getKey());
+                    dos.writeInt(reply.getKey());
+                    dos.writeShort(Math.min(cw[0], 0xFFFF));
+                    dos.writeShort(Math.min(cw[1], 0xFFFF));
+                }
+            }
+        }
+        System.err.println(
+                "Wrote " + entries + " replies for " + book.size() + " positions from " + used + " games ("
+                        + skipped + " without result) to " + out);
+    }
+
+    private static void addGame(
+            TreeMap<Long, TreeMap<Integer, int[]>> book, List<Move> moves, PieceColor winner, int maxPlies) {
+        BoardPro board = new BoardPro();
+        int limit = Math.min(maxPlies, moves.size());
+        for (int ply = 0; ply < limit; ply++) {
+            Move m = moves.get(ply);
+            if (board.gameOver() || !board.legalMove(m)) return;
+
+            PieceColor mover = board.whoseMove();
+            long[] hashes = board.getSymmetryHashes();
+            long key = Symmetry.canonicalKey(hashes);
+            int packed = Symmetry.canonicalMove(m, Symmetry.canonicalMask(hashes));
+            int score = (winner == PieceColor.EMPTY) ? 1 : (winner == mover) ? 2 : 0;
+
+            int[] cw = book.computeIfAbsent(key, k -> new TreeMap<>()).computeIfAbsent(packed, k -> new int[2]);
+            cw[0]++;
+            cw[1] += score;
+
+            board.makeMove(m);
+        }
+    }
+}
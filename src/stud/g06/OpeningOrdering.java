@@ -0,0 +1,136 @@
+package stud.g06;
+
+import core.game.Move;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed root move orderings for the first plies, keyed by canonical position.
+ *
+ * <p>Each line of the table is {@code keyHex startDepth MOVE,MOVE,...}: the position's
+ * {@link BoardPro#canonicalHash()}, the depth iterative deepening may start at, and candidate moves best first,
+ * written in the canonical frame of {@link Symmetry}. Lines starting with {@code #} are comments.
+ *
+ * <p>The table is read on first use from {@code -Dg06.openingOrder=<file>} if set, else from the
+ * {@code opening-order.txt} resource next to this class; if neither exists it is empty. Tables are produced
+ * offline by {@link OpeningOrderingBuilder}.
+ */
+final class OpeningOrdering {
+    static final String RESOURCE = "opening-order.txt";
+    static final String HEADER = "# g06 opening order v1";
+
+    /** Ordered root moves for one position, already mapped into the probing board's frame. */
+    static final class Entry {
+        final List<Move> moves;
+        final int startDepth;
+
+        Entry(List<Move> moves, int startDepth) {
+            this.moves = moves;
+            this.startDepth = startDepth;
+        }
+    }
+
+    private static final class Holder {
+        static final OpeningOrdering TABLE = loadDefault();
+    }
+
+    private final Map<Long, int[]> moves;
+    private final Map<Long, Integer> depths;
+
+    private OpeningOrdering(Map<Long, int[]> moves, Map<Long, Integer> depths) {
+        this.moves = moves;
+        this.depths = depths;
+    }
+
+    static OpeningOrdering get() {
+        return Holder.TABLE;
+    }
+
+    int size() {
+        return moves.size();
+    }
+
+    /** The stored ordering for {@code board}, keeping only moves legal there; null when not in the table. */
+    Entry probe(BoardPro board) {
+        if (moves.isEmpty()) return null;
+        long key = board.canonicalHash();
+        int[] packed = moves.get(key);
+        if (packed == null) return null;
+        int t = board.canonicalTransform();
+        ArrayList<Move> out = new ArrayList<>(packed.length);
+        for (int p : packed) {
+            Move m = Symmetry.unpackMove(p, t);
+            if (board.legalMove(m)) out.add(m);
+        }
+        return out.isEmpty() ? null : new Entry(out, depths.get(key));
+    }
+
+    static String formatLine(long key, int startDepth, List<Move> canonicalMoves) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(Long.toHexString(key)).append(' ').append(startDepth).append(' ');
+        for (int i = 0; i < canonicalMoves.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(canonicalMoves.get(i));
+        }
+        return sb.toString();
+    }
+
+    private static OpeningOrdering loadDefault() {
+        String raw = System.getProperty("g06.openingOrder", "").trim();
+        try {
+            if (!raw.isEmpty()) {
+                Path path = Paths.get(raw);
+                if (!Files.isRegularFile(path)) return empty();
+                try (Reader r = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    return parse(r);
+                }
+            }
+            InputStream in = OpeningOrdering.class.getResourceAsStream(RESOURCE);
+            if (in == null) return empty();
+            try (Reader r = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return parse(r);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("G06: ignoring opening order table: " + e);
+            return empty();
+        }
+    }
+
+    private static OpeningOrdering parse(Reader reader) throws IOException {
+        Map<Long, int[]> moves = new HashMap<>();
+        Map<Long, Integer> depths = new HashMap<>();
+        BufferedReader in = new BufferedReader(reader);
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s+");
+            if (parts.length != 3) throw new IllegalArgumentException("bad line: " + line);
+            long key = Long.parseUnsignedLong(parts[0], 16);
+            String[] ms = parts[2].split(",");
+            int[] packed = new int[ms.length];
+            for (int i = 0; i < ms.length; i++) {
+                packed[i] = Symmetry.packMove(Move.parseMove(ms[i]), 0);
+            }
+            moves.put(key, packed);
+            depths.put(key, Integer.parseInt(parts[1]));
+        }
+        return new OpeningOrdering(moves, depths);
+    }
+
+    private static OpeningOrdering empty() {
+        return new OpeningOrdering(Map.of(), Map.of());
+    }
+}
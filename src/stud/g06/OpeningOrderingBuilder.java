@@ -0,0 +1,103 @@
+package stud.g06;
+
+import core.game.Move;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds an {@link OpeningOrdering} table from the early positions of recorded games ({@link GameRecords} format).
+ *
+ * <p>Every distinct canonical position reached after {@code 1..order.maxPlies} moves of a game (plus the empty
+ * opening position) has its root candidates ranked by {@code AI.rankRootMoves} at depth {@code order.depth}, and
+ * the best {@code order.moves} of them are written best first in the canonical frame. Moves that are
+ * symmetric images of each other in a symmetric position are written once.
+ *
+ * <p>Usage:
+ * <pre>
+ *   java -cp lib/aiFramework.jar:out -Dorder.depth=6 stud.g06.OpeningOrderingBuilder src/stud/g06/opening-order.txt games.txt
+ * </pre>
+ * Other properties: {@code order.maxPlies} (3), {@code order.moves} (24), {@code order.budgetMs} per position
+ * (60000) and {@code order.startDepth} (4), the depth iterative deepening starts at for positions in the table.
+ */
+public final class OpeningOrderingBuilder {
+    private OpeningOrderingBuilder() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: OpeningOrderingBuilder <out.txt> <records> [records ...]");
+            System.exit(2);
+        }
+        int maxPlies = Integer.getInteger("order.maxPlies", 3);
+        int depth = Integer.getInteger("order.depth", 6);
+        int keep = Integer.getInteger("order.moves", 24);
+        int startDepth = Integer.getInteger("order.startDepth", 4);
+        long budgetMs = Long.getLong("order.budgetMs", 60_000L);
+
+        // canonical key -> one move sequence reaching it
+        TreeMap<Long, List<Move>> positions = new TreeMap<>();
+        positions.put(new BoardPro().canonicalHash(), List.of());
+        for (int a = 1; a < args.length; a++) {
+            for (GameRecords.Record r : GameRecords.read(Paths.get(args[a]))) {
+                addPrefixes(positions, r.moves, maxPlies);
+            }
+        }
+        System.err.println("Ranking " + positions.size() + " positions at depth " + depth);
+
+        AI engine = new AI();
+        Path out = Paths.get(args[0]);
+        try (BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            w.write(OpeningOrdering.HEADER);
+            w.newLine();
+            for (Map.Entry<Long, List<Move>> e : positions.entrySet()) {
+                BoardPro board = replay(e.getValue());
+                long t0 = System.currentTimeMillis();
+                engine.resetSearchState();
+                List<Move> ranked = engine.rankRootMoves(board, depth, budgetMs);
+
+                int mask = Symmetry.canonicalMask(board.getSymmetryHashes());
+                LinkedHashSet<Integer> packed = new LinkedHashSet<>();
+                for (Move m : ranked) {
+                    if (packed.size() >= keep) break;
+                    packed.add(Symmetry.canonicalMove(m, mask));
+                }
+                List<Move> canonical = new ArrayList<>(packed.size());
+                for (int p : packed) canonical.add(new Move(p >>> 16, p & 0xFFFF));
+
+                w.write(OpeningOrdering.formatLine(e.getKey(), startDepth, canonical));
+                w.newLine();
+                w.flush();
+                System.err.println(
+                        "  ply " + e.getValue().size() + " " + Long.toHexString(e.getKey()) + ": "
+                                + canonical.size() + " moves, " + (System.currentTimeMillis() - t0) + " ms");
+            }
+        }
+        System.err.println("Wrote " + positions.size() + " positions to " + out);
+    }
+
+    private static void addPrefixes(TreeMap<Long, List<Move>> positions, List<Move> moves, int maxPlies) {
+        BoardPro board = new BoardPro();
+        int limit = Math.min(maxPlies, moves.size());
+        for (int ply = 0; ply < limit; ply++) {
+            Move m = moves.get(ply);
+            if (board.gameOver() || !board.legalMove(m)) return;
+            board.makeMove(m);
+            positions.putIfAbsent(board.canonicalHash(), List.copyOf(moves.subList(0, ply + 1)));
+        }
+    }
+
+    private static BoardPro replay(List<Move> moves) {
+        BoardPro board = new BoardPro();
+        for (Move m : moves) board.makeMove(m);
+        return board;
+    }
+}
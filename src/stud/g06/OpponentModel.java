@@ -0,0 +1,204 @@
+package stud.g06;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-opponent statistics of which move each named opponent played in each position.
+ *
+ * <p>Positions are keyed by {@link BoardPro#canonicalHash()} and moves are stored in the canonical frame
+ * ({@link Symmetry#packMove}), so a reply seen once is recognised in all eight orientations. The AI buffers
+ * observations during a game and commits them under the opponent's {@code name()} when the game result arrives.
+ * Searches read a {@link Snapshot} taken when the game starts, which needs no locking.
+ *
+ * <p>Models live for the whole JVM, which covers league runs that host many games in one process. With
+ * {@code -Dg06.opponentModel=<file>} they are also loaded at startup, and each game's observations are appended
+ * after it under a file lock; the file is plain text, {@code name<TAB>key<TAB>packedMove<TAB>count} lines whose
+ * counts add up. Appending rather than rewriting lets bench worker processes, which share the forwarded path,
+ * keep each other's observations.
+ */
+final class OpponentModel {
+    private static final String HEADER = "# g06 opponent model v1";
+    private static final Map<String, OpponentModel> MODELS = new HashMap<>();
+    private static final Path FILE = configuredFile();
+
+    static {
+        load();
+    }
+
+    private final String name;
+    // position key -> (canonical packed move -> times played)
+    private final Map<Long, Map<Integer, Integer>> replies = new HashMap<>();
+
+    private OpponentModel(String name) {
+        this.name = name;
+    }
+
+    /** The model for {@code name}, created empty on first use. */
+    static synchronized OpponentModel forName(String name) {
+        return MODELS.computeIfAbsent(name, OpponentModel::new);
+    }
+
+    /** Existing model for {@code name}, or null when that opponent has never been observed. */
+    static synchronized OpponentModel find(String name) {
+        return name == null ? null : MODELS.get(name);
+    }
+
+    String name() {
+        return name;
+    }
+
+    synchronized void record(long key, int packedMove) {
+        replies.computeIfAbsent(key, k -> new HashMap<>()).merge(packedMove, 1, Integer::sum);
+    }
+
+    /** Immutable copy of the model as it is now, or null if it has no observations. */
+    synchronized Snapshot snapshot() {
+        return replies.isEmpty() ? null : new Snapshot(replies);
+    }
+
+    /**
+     * Read-only view of one opponent's model, safe to share between search threads. Positions are kept in an
+     * open-addressing table, so lookups do not allocate.
+     */
+    static final class Snapshot {
+        private static final int[] NONE = new int[0];
+
+        private final long[] keys;
+        // Per position: {observations, top count, packed moves most frequent first (ties by packed value)...}.
+        private final int[][] values;
+        private final int mask;
+
+        private Snapshot(Map<Long, Map<Integer, Integer>> replies) {
+            int size = Integer.highestOneBit(Math.max(2, replies.size()) * 2) * 2;
+            keys = new long[size];
+            values = new int[size][];
+            mask = size - 1;
+            for (Map.Entry<Long, Map<Integer, Integer>> e : replies.entrySet()) {
+                List<Map.Entry<Integer, Integer>> moves = new ArrayList<>(e.getValue().entrySet());
+                moves.sort((a, b) -> !a.getValue().equals(b.getValue())
+                        ? b.getValue() - a.getValue()
+                        : Integer.compare(a.getKey(), b.getKey()));
+                int[] v = new int[2 + moves.size()];
+                for (int i = 0; i < moves.size(); i++) {
+                    v[0] += moves.get(i).getValue();
+                    v[2 + i] = moves.get(i).getKey();
+                }
+                v[1] = moves.isEmpty() ? 0 : moves.get(0).getValue();
+                int slot = slot(e.getKey());
+                while (values[slot] != null) slot = (slot + 1) & mask;
+                keys[slot] = e.getKey();
+                values[slot] = v;
+            }
+        }
+
+        /** Number of times the opponent has been seen to move in this position. */
+        int observations(long key) {
+            int[] v = lookup(key);
+            return v == null ? 0 : v[0];
+        }
+
+        /** Count of the single most frequent reply in this position. */
+        int topCount(long key) {
+            int[] v = lookup(key);
+            return v == null ? 0 : v[1];
+        }
+
+        /** Number of distinct replies seen in this position. */
+        int replies(long key) {
+            int[] v = lookup(key);
+            return v == null ? 0 : v.length - 2;
+        }
+
+        /** The {@code i}-th most frequent reply in this position, as a canonical packed move. */
+        int reply(long key, int i) {
+            return lookup(key)[2 + i];
+        }
+
+        private int[] lookup(long key) {
+            for (int slot = slot(key); values[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) return values[slot];
+            }
+            return null;
+        }
+
+        private int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+
+    /** Commits a finished game's observations ({@code {key, packedMove}} pairs) and persists if configured. */
+    static void commit(String name, List<long[]> observations) {
+        if (name == null || observations.isEmpty()) return;
+        OpponentModel model = forName(name);
+        for (long[] o : observations) model.record(o[0], (int) o[1]);
+        append(name, observations);
+    }
+
+    private static Path configuredFile() {
+        String raw = System.getProperty("g06.opponentModel", "").trim();
+        return raw.isEmpty() ? null : Paths.get(raw);
+    }
+
+    private static void load() {
+        if (FILE == null || !Files.isRegularFile(FILE)) return;
+        try (FileChannel ch = FileChannel.open(FILE, StandardOpenOption.READ)) {
+            // Shared lock: no half-appended game from another process.
+            FileLock lock = ch.lock(0, Long.MAX_VALUE, true);
+            ByteBuffer buf;
+            try {
+                buf = ByteBuffer.allocate((int) ch.size());
+                while (buf.hasRemaining() && ch.read(buf) >= 0) {}
+            } finally {
+                lock.release();
+            }
+            String text = new String(buf.array(), 0, buf.position(), StandardCharsets.UTF_8);
+            for (String line : text.split("\n")) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] parts = line.split("\t");
+                if (parts.length != 4) continue;
+                OpponentModel model = forName(parts[0]);
+                Map<Integer, Integer> moves =
+                        model.replies.computeIfAbsent(Long.parseUnsignedLong(parts[1], 16), k -> new HashMap<>());
+                moves.merge(Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), Integer::sum);
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("G06 opponent model: ignoring unreadable " + FILE + ": " + e);
+        }
+    }
+
+    // The monitor orders appends in this JVM (a second in-process FileLock would throw); the file lock orders them
+    // against other processes.
+    private static synchronized void append(String name, List<long[]> observations) {
+        if (FILE == null) return;
+        StringBuilder sb = new StringBuilder();
+        for (long[] o : observations) {
+            sb.append(name).append('\t').append(Long.toHexString(o[0])).append('\t').append((int) o[1]).append("\t1\n");
+        }
+        try (FileChannel ch = FileChannel.open(FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = ch.lock();
+            try {
+                if (ch.size() == 0) sb.insert(0, HEADER + "\n");
+                ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+                long position = ch.size();
+                while (buf.hasRemaining()) position += ch.write(buf, position);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            System.err.println("G06 opponent model: could not append to " + FILE + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package stud.g06;
+
+import core.game.Move;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Deterministic node-count regression suite.
+ *
+ * <p>Every game in a {@link GameRecords} file defines one reference position: the board after all of its moves.
+ * For each position three measurements run with wall-clock limits disabled, so their results depend only on the
+ * position and the engine:
+ * <ul>
+ *   <li>{@code perft}: leaf count of the interior move generator's tree to {@code perft.genDepth}
+ *       ({@link AI#movePerft});</li>
+ *   <li>{@code search}: fixed-depth alpha-beta to {@code perft.depth} from an empty table
+ *       ({@link AI#fixedDepthSearch}): nodes, table probes and hits, best move and score;</li>
+ *   <li>{@code analyze}: the full move decision at {@code perft.nodes} nodes ({@link AI#analyze}): nodes, best
+ *       move and score.</li>
+ * </ul>
+ * Each position runs on a fresh engine and none of the three uses the process-wide forced-win store (which
+ * {@code -Dg06.dtssStore} would also fill from disk), so results do not depend on the order of the file or on
+ * earlier runs.
+ *
+ * <p>With an expected-results file the suite is a test: every value is compared, mismatches are listed and the
+ * exit status is 1 if there were any. Nodes per second are printed for speed tracking but never compared. When the
+ * expected file does not exist, or with {@code -Dperft.update=true}, it is (re)written from this run. The file is
+ * plain text, one {@code position key=value ...} line per position with its depths in the header, and diffs well.
+ * The usual workflow records the file on a known-good commit and compares every later change against it; a change
+ * that is meant to alter the search is checked by inspecting the diff and then recording again.
+ *
+ * <p>Without arguments the checked-in reference set is run: {@value #DEFAULT_POSITIONS} against
+ * {@value #DEFAULT_EXPECTED}, from the project root. This is the regression test; it fails on any changed count and,
+ * unlike an explicit expected file, a missing {@value #DEFAULT_EXPECTED} is an error rather than recorded, so it is
+ * only rewritten with {@code -Dperft.update=true}.
+ *
+ * <p>Usage:
+ * <pre>
+ *   java -cp lib/aiFramework.jar:out stud.g06.Perft
+ *   java -cp lib/aiFramework.jar:out stud.g06.Perft positions.txt [perft-expected.txt]
+ * </pre>
+ * Properties: {@code perft.genDepth} (2), {@code perft.depth} (4), {@code perft.nodes} (20000) and
+ * {@code perft.update}.
+ */
+public final class Perft {
+    private static final String HEADER = "# g06 perft v1";
+    static final String DEFAULT_POSITIONS = "src/stud/g06/perft-positions.txt";
+    static final String DEFAULT_EXPECTED = "src/stud/g06/perft-expected.txt";
+
+    private Perft() {}
+
+    public static void main(String[] args) throws IOException {
+        int genDepth = Integer.getInteger("perft.genDepth", 2);
+        int depth = Integer.getInteger("perft.depth", 4);
+        long nodes = Long.getLong("perft.nodes", 20_000);
+        String settings = "genDepth=" + genDepth + " depth=" + depth + " nodes=" + nodes;
+
+        boolean reference = args.length == 0;
+        Path positionsFile = Paths.get(reference ? DEFAULT_POSITIONS : args[0]);
+        Path expectedFile = reference ? Paths.get(DEFAULT_EXPECTED) : args.length >= 2 ? Paths.get(args[1]) : null;
+        if (reference && !Files.exists(positionsFile)) {
+            System.err.println(positionsFile + " not found; run from the project root or give <positions> [expected]");
+            System.exit(2);
+        }
+        boolean update = expectedFile != null && (Boolean.getBoolean("perft.update")
+                || (!reference && !Files.exists(expectedFile)));
+        if (reference && !update && !Files.exists(expectedFile)) {
+            System.err.println(expectedFile + " not found; record it with -Dperft.update=true");
+            System.exit(2);
+        }
+        List<GameRecords.Record> positions = GameRecords.read(positionsFile);
+        Map<String, Map<String, String>> expected = null;
+        if (expectedFile != null && !update) {
+            try {
+                expected = readExpected(expectedFile, settings);
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.exit(2);
+            }
+        }
+
+        LinkedHashMap<String, Map<String, String>> actual = new LinkedHashMap<>();
+        long totalNodes = 0;
+        long totalNanos = 0;
+        int mismatches = 0;
+        for (int i = 0; i < positions.size(); i++) {
+            BoardPro board = new BoardPro();
+            boolean legal = true;
+            for (Move m : positions.get(i).moves) {
+                if (board.gameOver() || !board.legalMove(m)) {
+                    legal = false;
+                    break;
+                }
+                board.makeMove(m);
+            }
+            String name = "pos" + i;
+            if (!legal || board.gameOver()) {
+                System.out.println(name + ": skipped (illegal or finished game)");
+                continue;
+            }
+
+            LinkedHashMap<String, String> r = new LinkedHashMap<>();
+            r.put("hash", Long.toHexString(board.canonicalHash()));
+            long t0 = System.nanoTime();
+
+            AI engine = new AI();
+            engine.setPosition(board);
+            r.put("perft", Long.toString(engine.movePerft(genDepth)));
+            long t1 = System.nanoTime();
+
+            SearchReport s = engine.fixedDepthSearch(depth);
+            r.put("searchNodes", Long.toString(s.nodes()));
+            r.put("ttProbes", Long.toString(engine.ttProbes()));
+            r.put("ttHits", Long.toString(engine.ttHits()));
+            r.put("searchBest", String.valueOf(s.move()));
+            r.put("searchScore", Integer.toString(s.score()));
+            long t2 = System.nanoTime();
+
+            AI analyzer = new AI();
+            analyzer.setForcedWinCache(false);
+            SearchReport a = analyzer.analyze(new BoardPro(board), 0, nodes);
+            r.put("analyzeNodes", Long.toString(a.nodes()));
+            r.put("analyzeBest", String.valueOf(a.move()));
+            r.put("analyzeScore", Integer.toString(a.score()));
+            long t3 = System.nanoTime();
+
+            totalNodes += s.nodes() + a.nodes();
+            totalNanos += (t2 - t1) + (t3 - t2);
+            actual.put(name, r);
+
+            StringBuilder line = new StringBuilder(name);
+            for (Map.Entry<String, String> e : r.entrySet()) line.append(' ').append(e.getKey()).append('=').append(e.getValue());
+            double hitRate = engine.ttProbes() == 0 ? 0 : 100.0 * engine.ttHits() / engine.ttProbes();
+            line.append(String.format(Locale.ROOT, "  [tt %.1f%%, perft %d ms, search %.0f nodes/s, analyze %.0f nodes/s]",
+                    hitRate, (t1 - t0) / 1_000_000L, rate(s.nodes(), t2 - t1), rate(a.nodes(), t3 - t2)));
+            System.out.println(line);
+
+            if (expected != null) {
+                Map<String, String> want = expected.get(name);
+                if (want == null) {
+                    System.out.println("  MISSING from expected results");
+                    mismatches++;
+                    continue;
+                }
+                for (Map.Entry<String, String> e : r.entrySet()) {
+                    String w = want.get(e.getKey());
+                    if (!e.getValue().equals(w)) {
+                        System.out.println("  MISMATCH " + e.getKey() + ": expected " + w + ", got " + e.getValue());
+                        mismatches++;
+                    }
+                }
+            }
+        }
+        System.out.printf(Locale.ROOT, "%d positions, %d search nodes, %.0f nodes/s%n",
+                actual.size(), totalNodes, rate(totalNodes, totalNanos));
+
+        if (update) {
+            writeExpected(expectedFile, settings, actual);
+            System.out.println("Wrote " + expectedFile);
+        } else if (expected != null) {
+            if (expected.size() != actual.size()) {
+                System.out.println("Expected " + expected.size() + " positions, ran " + actual.size());
+                mismatches++;
+            }
+            System.out.println(mismatches == 0 ? "PASS" : "FAIL: " + mismatches + " mismatch(es)");
+            if (mismatches > 0) System.exit(1);
+        }
+    }
+
+    private static double rate(long nodes, long nanos) {
+        return nanos <= 0 ? 0 : nodes * 1e9 / nanos;
+    }
+
+    private static Map<String, Map<String, String>> readExpected(Path file, String settings) throws IOException {
+        LinkedHashMap<String, Map<String, String>> out = new LinkedHashMap<>();
+        boolean header = false;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            if (line.startsWith("#")) {
+                if (line.startsWith(HEADER)) {
+                    header = true;
+                    String recorded = line.substring(HEADER.length()).trim();
+                    if (!recorded.equals(settings)) {
+                        throw new IllegalArgumentException(
+                                file + " was recorded with " + recorded + ", this run uses " + settings);
+                    }
+                }
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            LinkedHashMap<String, String> values = new LinkedHashMap<>();
+            for (int i = 1; i < parts.length; i++) {
+                int eq = parts[i].indexOf('=');
+                if (eq > 0) values.put(parts[i].substring(0, eq), parts[i].substring(eq + 1));
+            }
+            out.put(parts[0], values);
+        }
+        if (!header) throw new IllegalArgumentException(file + ": missing '" + HEADER + "' header");
+        return out;
+    }
+
+    private static void writeExpected(Path file, String settings, Map<String, Map<String, String>> results)
+            throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write(HEADER + " " + settings);
+            w.newLine();
+            for (Map.Entry<String, Map<String, String>> p : results.entrySet()) {
+                StringBuilder line = new StringBuilder(p.getKey());
+                for (Map.Entry<String, String> e : p.getValue().entrySet()) {
+                    line.append(' ').append(e.getKey()).append('=').append(e.getValue());
+                }
+                w.write(line.toString());
+                w.newLine();
+            }
+        }
+    }
+}
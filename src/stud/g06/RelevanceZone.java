@@ -0,0 +1,70 @@
+package stud.g06;
+
+import core.board.PieceColor;
+
+/**
+ * Cell sets (361-bit) describing which points a DTSS proof depended on.
+ *
+ * <p>A proof's zone holds every stone placed in the proof tree and every cell of each attacker 4/5-road that the
+ * defender had to answer. If a sibling defense puts both stones outside a refuted defense's zone, the same
+ * attacker strategy still wins: the attacker's roads and moves are untouched, and the defender can only gain
+ * counter-threats on roads through the new stones, which {@link #admits} checks conservatively.
+ */
+final class RelevanceZone {
+    private static final int WORDS = (361 + 63) / 64;
+
+    private RelevanceZone() {
+    }
+
+    static long[] create() {
+        return new long[WORDS];
+    }
+
+    static void add(long[] zone, int pos) {
+        zone[pos >>> 6] |= 1L << pos;
+    }
+
+    static boolean contains(long[] zone, int pos) {
+        return (zone[pos >>> 6] & (1L << pos)) != 0;
+    }
+
+    static void addAll(long[] zone, long[] other) {
+        for (int i = 0; i < WORDS; i++) zone[i] |= other[i];
+    }
+
+    static void addRoads(long[] zone, RoadSet roads) {
+        for (Road road : roads) {
+            for (int i = 0; i < 6; i++) add(zone, road.cellAt(i));
+        }
+    }
+
+    /**
+     * Whether a proof with zone {@code zone} also refutes the defense {@code (a, b)} in the current position.
+     *
+     * <p>Requires both stones outside the zone, and that no road through them can become a defender 4-road even
+     * if the defender later filled every empty zone cell on it.
+     */
+    static boolean admits(long[] zone, RoadTable roadTable, PieceColor attacker, int a, int b) {
+        if (contains(zone, a) || contains(zone, b)) return false;
+        for (Road road : roadTable.getRoadsThroughPos(a)) {
+            if (!cannotThreaten(zone, road, attacker, a, b)) return false;
+        }
+        for (Road road : roadTable.getRoadsThroughPos(b)) {
+            if (!cannotThreaten(zone, road, attacker, a, b)) return false;
+        }
+        return true;
+    }
+
+    private static boolean cannotThreaten(long[] zone, Road road, PieceColor attacker, int a, int b) {
+        int code = road.getPattern();
+        int mine = RoadPattern.threat(code, attacker);
+        if (mine != 0) return true; // holds an attacker stone (or both colours): dead for the defender
+
+        int defender = RoadPattern.threat(code, attacker.opposite());
+        for (int m = RoadPattern.emptyMask(code); m != 0; m &= m - 1) {
+            int pos = road.cellAt(Integer.numberOfTrailingZeros(m));
+            if (pos == a || pos == b || contains(zone, pos)) defender++;
+        }
+        return defender < 4;
+    }
+}
@@ -17,6 +17,7 @@ public final class Road {
 
     private int blackNum; // 0..6
     private int whiteNum; // 0..6
+    private int pattern;  // 12-bit occupancy code, see RoadPattern
 
     Road(int startPos, int dir, boolean active) {
         this.startPos = startPos;
@@ -44,24 +45,38 @@ public final class Road {
         return whiteNum;
     }
 
-    void addStone(PieceColor stone) {
+    int getPattern() {
+        return pattern;
+    }
+
+    void addStone(int offset, PieceColor stone) {
         if (stone == BLACK) {
             blackNum++;
         } else if (stone == WHITE) {
             whiteNum++;
+        } else {
+            return;
         }
+        pattern |= RoadPattern.cellCode(stone) << (2 * offset);
     }
 
-    void removeStone(PieceColor stone) {
+    void removeStone(int offset, PieceColor stone) {
         if (stone == BLACK) {
             blackNum--;
         } else if (stone == WHITE) {
             whiteNum--;
+        } else {
+            return;
         }
+        pattern &= ~(3 << (2 * offset));
     }
 
     int cellAt(int offset) {
         return startPos + FORWARD[dir] * offset;
     }
+
+    int offsetOf(int pos) {
+        return (pos - startPos) / FORWARD[dir];
+    }
 }
 
@@ -0,0 +1,96 @@
+package stud.g06;
+
+import core.board.PieceColor;
+
+/**
+ * Lookup tables indexed by a road's 12-bit occupancy code (see {@link Road#getPattern()}).
+ *
+ * <p>Cell {@code i} of the road occupies bits {@code 2i..2i+1}: 0 empty, 1 black, 2 white.
+ * Every classification the search needs for a six-cell window is a single array read.
+ */
+public final class RoadPattern {
+    static final int SIZE = 1 << 12;
+
+    static final int EMPTY_CELL = 0;
+    static final int BLACK_CELL = 1;
+    static final int WHITE_CELL = 2;
+
+    /** Threat class of a road that contains stones of both colours: it can never become six. */
+    static final int DEAD = -1;
+
+    // Same scale as AI.POW, so table scores match the scan-based evaluation exactly.
+    private static final int[] POW = {1, 10, 100, 1000, 10000, 100000, 1000000, 10000000};
+
+    private static final byte[] EMPTY_MASK = new byte[SIZE];
+    private static final byte[][] THREAT = new byte[2][SIZE];
+    private static final int[][] SPOT_SCORE = new int[2][SIZE];
+    private static final int[][] ATTACK_SCORE = new int[2][SIZE];
+
+    static {
+        for (int code = 0; code < SIZE; code++) {
+            int black = 0;
+            int white = 0;
+            int empty = 0;
+            boolean valid = true;
+            for (int i = 0; i < 6; i++) {
+                int cell = (code >>> (2 * i)) & 3;
+                if (cell == BLACK_CELL) black++;
+                else if (cell == WHITE_CELL) white++;
+                else if (cell == EMPTY_CELL) empty |= 1 << i;
+                else valid = false;
+            }
+            if (!valid) {
+                THREAT[0][code] = DEAD;
+                THREAT[1][code] = DEAD;
+                continue;
+            }
+            EMPTY_MASK[code] = (byte) empty;
+            THREAT[0][code] = (byte) (white == 0 ? black : DEAD);
+            THREAT[1][code] = (byte) (black == 0 ? white : DEAD);
+            fillScores(0, code, black, white);
+            fillScores(1, code, white, black);
+        }
+    }
+
+    private RoadPattern() {
+    }
+
+    // SPOT_SCORE mirrors AI.evalSpot (attack + doubled defence), ATTACK_SCORE mirrors AI.evalSpotFor.
+    private static void fillScores(int side, int code, int mine, int theirs) {
+        int spot = 0;
+        if (theirs == 0 && mine > 0) spot += POW[mine];
+        if (mine == 0 && theirs > 0) spot += POW[theirs] * 2;
+        SPOT_SCORE[side][code] = spot;
+        ATTACK_SCORE[side][code] = theirs == 0 ? POW[mine + 1] : 0;
+    }
+
+    static int side(PieceColor color) {
+        return color == PieceColor.WHITE ? 1 : 0;
+    }
+
+    static int cellCode(PieceColor color) {
+        if (color == PieceColor.BLACK) return BLACK_CELL;
+        if (color == PieceColor.WHITE) return WHITE_CELL;
+        return EMPTY_CELL;
+    }
+
+    /** Bit {@code i} is set when cell {@code i} of the road is empty. */
+    static int emptyMask(int code) {
+        return EMPTY_MASK[code];
+    }
+
+    /** Stones of {@code color} on the road, or {@link #DEAD} when the opponent also has a stone on it. */
+    static int threat(int code, PieceColor color) {
+        return THREAT[side(color)][code];
+    }
+
+    /** Contribution of one road to {@code evalSpot} for a point on it. */
+    static int spotScore(int code, PieceColor me) {
+        return SPOT_SCORE[side(me)][code];
+    }
+
+    /** Contribution of one road to {@code evalSpotFor} (attack only) for a point on it. */
+    static int attackScore(int code, PieceColor color) {
+        return ATTACK_SCORE[side(color)][code];
+    }
+}
@@ -90,7 +90,7 @@ public final class RoadTable {
         if (!Move.validSquare(pos)) return;
         if (color != BLACK && color != WHITE) return;
         for (Road road : posToRoads[pos]) {
-            moveRoad(road, color, +1);
+            moveRoad(road, pos, color, +1);
         }
     }
 
@@ -98,19 +98,15 @@ public final class RoadTable {
         if (!Move.validSquare(pos)) return;
         if (color != BLACK && color != WHITE) return;
         for (Road road : posToRoads[pos]) {
-            moveRoad(road, color, -1);
+            moveRoad(road, pos, color, -1);
         }
     }
 
-    private void moveRoad(Road road, PieceColor color, int delta) {
+    private void moveRoad(Road road, int pos, PieceColor color, int delta) {
         roadsByCount[road.getBlackNum()][road.getWhiteNum()].remove(road);
-        if (color == BLACK) {
-            if (delta > 0) road.addStone(BLACK);
-            else road.removeStone(BLACK);
-        } else {
-            if (delta > 0) road.addStone(WHITE);
-            else road.removeStone(WHITE);
-        }
+        int offset = road.offsetOf(pos);
+        if (delta > 0) road.addStone(offset, color);
+        else road.removeStone(offset, color);
         roadsByCount[road.getBlackNum()][road.getWhiteNum()].add(road);
     }
 
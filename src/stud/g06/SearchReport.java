@@ -0,0 +1,71 @@
+package stud.g06;
+
+import core.game.Move;
+
+/**
+ * Outcome of one engine search on a single position.
+ *
+ * <p>Produced by {@link AI#analyze(BoardPro, long, long)} for offline tools (batch analysis, self-play, tuning).
+ */
+public final class SearchReport {
+    /** Which stage of {@code findNextMove} produced the move. */
+    public enum Phase {
+        FIRST,
+        IMMEDIATE_WIN,
+        BLOCK,
+        OPENING,
+        DTSS,
+        SEARCH,
+        SAFETY
+    }
+
+    private final Move move;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final boolean dtssProof;
+    private final Phase phase;
+    private final long elapsedMs;
+
+    SearchReport(Move move, int score, int depth, long nodes, boolean dtssProof, Phase phase, long elapsedMs) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.dtssProof = dtssProof;
+        this.phase = phase;
+        this.elapsedMs = elapsedMs;
+    }
+
+    public Move move() {
+        return move;
+    }
+
+    /** Score from the side to move's point of view (alpha-beta units, +/-10000000 is a proven result). */
+    public int score() {
+        return score;
+    }
+
+    /** Completed alpha-beta depth, or DTSS depth when {@link #dtssProof()} is set; 0 for tactical shortcuts. */
+    public int depth() {
+        return depth;
+    }
+
+    /** Alpha-beta nodes plus DTSS nodes spent on this position. */
+    public long nodes() {
+        return nodes;
+    }
+
+    /** Whether the move is backed by a completed DTSS forced-win proof. */
+    public boolean dtssProof() {
+        return dtssProof;
+    }
+
+    public Phase phase() {
+        return phase;
+    }
+
+    public long elapsedMs() {
+        return elapsedMs;
+    }
+}
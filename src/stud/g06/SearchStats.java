@@ -0,0 +1,334 @@
+package stud.g06;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+/**
+ * Search telemetry.
+ *
+ * <p>Each engine counts into its own {@link Counters} with plain field increments, so the hot loops pay no more than
+ * they did for {@code nodeCounter}. When a move is decided the counters are added to process-wide
+ * {@link LongAdder}s, which root workers on other threads update concurrently, and optionally printed as one line
+ * on stderr ({@code -Dg06.searchLog=true}). The totals are readable through {@link SearchStatsMXBean}, registered
+ * with the platform MBean server when the JVM runs with {@code -Dg06.jmx=true}, e.g. for jconsole during a bench.
+ */
+final class SearchStats implements SearchStatsMXBean {
+    static final String OBJECT_NAME = "stud.g06:type=SearchStats";
+    static final boolean LOG = Boolean.getBoolean("g06.searchLog");
+
+    /** Where a move's time goes, in the order {@code searchBestMove} runs them. */
+    enum Stage {
+        TACTICS,
+        DTSS,
+        SEARCH,
+        SAFETY
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final SearchReport.Phase[] PHASES = SearchReport.Phase.values();
+    private static final SearchStats INSTANCE = new SearchStats();
+
+    static {
+        if (Boolean.getBoolean("g06.jmx")) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (Exception | LinkageError e) {
+                System.err.println("G06: cannot register " + OBJECT_NAME + ": " + e);
+            }
+        }
+    }
+
+    /** Per-engine counts for the move being searched; single-threaded. */
+    static final class Counters {
+        long ttProbes;
+        long ttHits;
+        long ttStores;
+        long ttReplaces;
+        long cutoffs;
+        long firstMoveCutoffs;
+        long dtssRuns;
+        long dtssProven;
+        long dtssFailed;
+        long dtssTimeouts;
+        long dtssCacheHits;
+        long safetyChecks;
+        long safetyTimeouts;
+        long scoutTasks;
+        long scoutCapacityNanos;
+        final long[] stageNanos = new long[STAGES.length];
+        private Stage stage;
+        private long mark;
+
+        void reset() {
+            ttProbes = ttHits = ttStores = ttReplaces = 0;
+            cutoffs = firstMoveCutoffs = 0;
+            dtssRuns = dtssProven = dtssFailed = dtssTimeouts = dtssCacheHits = 0;
+            safetyChecks = safetyTimeouts = 0;
+            scoutTasks = scoutCapacityNanos = 0;
+            Arrays.fill(stageNanos, 0);
+            stage = Stage.TACTICS;
+            mark = System.nanoTime();
+        }
+
+        /** Charges the time since the last call to the current stage and makes {@code next} current. */
+        void enter(Stage next) {
+            long now = System.nanoTime();
+            if (stage != null) stageNanos[stage.ordinal()] += now - mark;
+            stage = next;
+            mark = now;
+        }
+
+        /** Closes the current stage. */
+        void finish() {
+            enter(null);
+        }
+    }
+
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder[] movesByPhase = adders(PHASES.length);
+    private final LongAdder depthSum = new LongAdder();
+    private final LongAdder depthMoves = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder dtssNodes = new LongAdder();
+    private final LongAdder[] stageNanos = adders(STAGES.length);
+    private final LongAdder ttProbes = new LongAdder();
+    private final LongAdder ttHits = new LongAdder();
+    private final LongAdder ttStores = new LongAdder();
+    private final LongAdder ttReplaces = new LongAdder();
+    private final LongAdder cutoffs = new LongAdder();
+    private final LongAdder firstMoveCutoffs = new LongAdder();
+    private final LongAdder dtssRuns = new LongAdder();
+    private final LongAdder dtssProven = new LongAdder();
+    private final LongAdder dtssFailed = new LongAdder();
+    private final LongAdder dtssTimeouts = new LongAdder();
+    private final LongAdder dtssCacheHits = new LongAdder();
+    private final LongAdder safetyChecks = new LongAdder();
+    private final LongAdder safetyTimeouts = new LongAdder();
+    private final LongAdder scoutTasks = new LongAdder();
+    private final LongAdder scoutCapacityNanos = new LongAdder();
+    private final LongAdder workerBusyNanos = new LongAdder();
+
+    private SearchStats() {}
+
+    static SearchStats get() {
+        return INSTANCE;
+    }
+
+    /** Adds one decided move and the counters of its search. */
+    static void recordMove(Counters c, SearchReport.Phase phase, int depth, long nodes, long dtssNodes) {
+        SearchStats s = INSTANCE;
+        s.moves.increment();
+        s.movesByPhase[phase.ordinal()].increment();
+        if (depth > 0) {
+            s.depthSum.add(depth);
+            s.depthMoves.increment();
+        }
+        s.nodes.add(nodes);
+        s.dtssNodes.add(dtssNodes);
+        for (int i = 0; i < STAGES.length; i++) s.stageNanos[i].add(c.stageNanos[i]);
+        s.addSearch(c);
+        s.dtssRuns.add(c.dtssRuns);
+        s.dtssProven.add(c.dtssProven);
+        s.dtssFailed.add(c.dtssFailed);
+        s.dtssTimeouts.add(c.dtssTimeouts);
+        s.dtssCacheHits.add(c.dtssCacheHits);
+        s.safetyChecks.add(c.safetyChecks);
+        s.safetyTimeouts.add(c.safetyTimeouts);
+        s.scoutTasks.add(c.scoutTasks);
+        s.scoutCapacityNanos.add(c.scoutCapacityNanos);
+    }
+
+    /** Adds the work of one root scout, called on the worker's thread. */
+    static void recordScout(Counters c, long nodes, long busyNanos) {
+        SearchStats s = INSTANCE;
+        s.nodes.add(nodes);
+        s.addSearch(c);
+        s.workerBusyNanos.add(busyNanos);
+    }
+
+    private void addSearch(Counters c) {
+        ttProbes.add(c.ttProbes);
+        ttHits.add(c.ttHits);
+        ttStores.add(c.ttStores);
+        ttReplaces.add(c.ttReplaces);
+        cutoffs.add(c.cutoffs);
+        firstMoveCutoffs.add(c.firstMoveCutoffs);
+    }
+
+    /** The per-move line printed with {@code -Dg06.searchLog=true}. */
+    static String logLine(Counters c, SearchReport r, int ply) {
+        long total = 0;
+        for (long n : c.stageNanos) total += n;
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "G06 ply %d %s %s d%d score %d nodes %d (%.0f/s) tt %.1f%% (%d stores, %d replaced) cut1 %.1f%%"
+                        + " dtss %d run/%d proven/%d failed/%d timeout",
+                ply, r.move(), r.phase(), r.depth(), r.score(), r.nodes(), perSecond(r.nodes(), total),
+                percent(c.ttHits, c.ttProbes), c.ttStores, c.ttReplaces, percent(c.firstMoveCutoffs, c.cutoffs),
+                c.dtssRuns, c.dtssProven, c.dtssFailed, c.dtssTimeouts));
+        if (c.safetyChecks > 0) sb.append(" safety ").append(c.safetyChecks).append('/').append(c.safetyTimeouts);
+        if (c.scoutTasks > 0) sb.append(" scouts ").append(c.scoutTasks);
+        sb.append(" ms");
+        for (Stage s : STAGES) {
+            sb.append(' ').append(s.name().toLowerCase(Locale.ROOT)).append('=')
+                    .append(c.stageNanos[s.ordinal()] / 1_000_000L);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    @Override
+    public Map<String, Long> getMovesByPhase() {
+        LinkedHashMap<String, Long> out = new LinkedHashMap<>();
+        for (SearchReport.Phase p : PHASES) out.put(p.name(), movesByPhase[p.ordinal()].sum());
+        return out;
+    }
+
+    @Override
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getDtssNodes() {
+        return dtssNodes.sum();
+    }
+
+    @Override
+    public double getNodesPerSecond() {
+        long total = 0;
+        for (LongAdder a : stageNanos) total += a.sum();
+        return perSecond(nodes.sum() + dtssNodes.sum(), total);
+    }
+
+    @Override
+    public double getMeanDepth() {
+        long n = depthMoves.sum();
+        return n == 0 ? 0 : (double) depthSum.sum() / n;
+    }
+
+    @Override
+    public Map<String, Long> getStageMillis() {
+        LinkedHashMap<String, Long> out = new LinkedHashMap<>();
+        for (Stage s : STAGES) out.put(s.name(), stageNanos[s.ordinal()].sum() / 1_000_000L);
+        return out;
+    }
+
+    @Override
+    public long getTtProbes() {
+        return ttProbes.sum();
+    }
+
+    @Override
+    public long getTtHits() {
+        return ttHits.sum();
+    }
+
+    @Override
+    public double getTtHitRate() {
+        return ratio(ttHits.sum(), ttProbes.sum());
+    }
+
+    @Override
+    public long getTtStores() {
+        return ttStores.sum();
+    }
+
+    @Override
+    public long getTtReplaces() {
+        return ttReplaces.sum();
+    }
+
+    @Override
+    public long getCutoffs() {
+        return cutoffs.sum();
+    }
+
+    @Override
+    public double getFirstMoveCutoffRate() {
+        return ratio(firstMoveCutoffs.sum(), cutoffs.sum());
+    }
+
+    @Override
+    public long getDtssRuns() {
+        return dtssRuns.sum();
+    }
+
+    @Override
+    public long getDtssProven() {
+        return dtssProven.sum();
+    }
+
+    @Override
+    public long getDtssFailed() {
+        return dtssFailed.sum();
+    }
+
+    @Override
+    public long getDtssTimeouts() {
+        return dtssTimeouts.sum();
+    }
+
+    @Override
+    public long getDtssCacheHits() {
+        return dtssCacheHits.sum();
+    }
+
+    @Override
+    public long getSafetyChecks() {
+        return safetyChecks.sum();
+    }
+
+    @Override
+    public long getSafetyTimeouts() {
+        return safetyTimeouts.sum();
+    }
+
+    @Override
+    public long getScoutTasks() {
+        return scoutTasks.sum();
+    }
+
+    @Override
+    public double getWorkerUtilisation() {
+        return ratio(workerBusyNanos.sum(), scoutCapacityNanos.sum());
+    }
+
+    /** Zeroes every total; counts from searches running at the same time may be partly lost. */
+    @Override
+    public void reset() {
+        for (LongAdder a : new LongAdder[] {moves, depthSum, depthMoves, nodes, dtssNodes, ttProbes, ttHits,
+                ttStores, ttReplaces, cutoffs, firstMoveCutoffs, dtssRuns, dtssProven, dtssFailed, dtssTimeouts,
+                dtssCacheHits, safetyChecks, safetyTimeouts, scoutTasks, scoutCapacityNanos, workerBusyNanos}) {
+            a.reset();
+        }
+        for (LongAdder a : movesByPhase) a.reset();
+        for (LongAdder a : stageNanos) a.reset();
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] out = new LongAdder[n];
+        for (int i = 0; i < n; i++) out[i] = new LongAdder();
+        return out;
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0 : (double) part / whole;
+    }
+
+    private static double percent(long part, long whole) {
+        return 100 * ratio(part, whole);
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos <= 0 ? 0 : count * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,72 @@
+package stud.g06;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link SearchStats}: totals over every G06 engine in the JVM since start or the last {@link #reset()}.
+ * Registered as {@value SearchStats#OBJECT_NAME} when the JVM runs with {@code -Dg06.jmx=true}.
+ */
+public interface SearchStatsMXBean {
+    /** Moves decided by {@code findNextMove}, {@code firstMove} and offline {@code analyze} calls. */
+    long getMoves();
+
+    /** Moves by the {@link SearchReport.Phase} that produced them. */
+    Map<String, Long> getMovesByPhase();
+
+    /** Alpha-beta nodes, root scout workers included. */
+    long getNodes();
+
+    long getDtssNodes();
+
+    /** Alpha-beta and DTSS nodes per second of move time. */
+    double getNodesPerSecond();
+
+    /** Mean completed alpha-beta (or DTSS proof) depth of the moves that reported one. */
+    double getMeanDepth();
+
+    /** Move time by stage: tactics (immediate wins, blocks, book), DTSS, search (iterative deepening), safety. */
+    Map<String, Long> getStageMillis();
+
+    long getTtProbes();
+
+    long getTtHits();
+
+    double getTtHitRate();
+
+    long getTtStores();
+
+    /** Stores that overwrote an existing entry for the same key. */
+    long getTtReplaces();
+
+    /** Beta cutoffs in alpha-beta. */
+    long getCutoffs();
+
+    /** Fraction of beta cutoffs produced by the first move searched, a measure of move ordering. */
+    double getFirstMoveCutoffRate();
+
+    /** DTSS runs (one per attacker and depth), including those answered by the forced-win cache. */
+    long getDtssRuns();
+
+    long getDtssProven();
+
+    /** Runs that completed without a win. */
+    long getDtssFailed();
+
+    /** Runs cut short by their deadline or node limit. */
+    long getDtssTimeouts();
+
+    long getDtssCacheHits();
+
+    /** Candidates checked by the root safety pass, and how many of those checks timed out. */
+    long getSafetyChecks();
+
+    long getSafetyTimeouts();
+
+    /** Root moves scouted on the root pool. */
+    long getScoutTasks();
+
+    /** Busy time of the root pool over its capacity (threads times scout wall time). */
+    double getWorkerUtilisation();
+
+    void reset();
+}
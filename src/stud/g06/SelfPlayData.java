@@ -0,0 +1,122 @@
+package stud.g06;
+
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary training data written by {@link SelfPlayGenerator}, one chunk file per {@code selfplay.chunkGames} games.
+ *
+ * <p>A chunk is {@code MAGIC}, version, then games back to back (big-endian). A game is {@code short plies},
+ * {@code byte winner} (0 draw, 1 WHITE, 2 BLACK), {@code byte randomPlies}, then per ply {@code short index1},
+ * {@code short index2} of the move played and {@code int score}, the search score of that move for the side to
+ * move (0 for the random opening plies, whose moves were not searched). The position of ply {@code p} is the
+ * starting board plus the first {@code p} moves, so a searched position costs 8 bytes and readers rebuild boards
+ * by replaying, as they already do for {@link GameRecords}. Chunks are complete once closed; a torn last game (an
+ * interrupted run) is dropped by the reader.
+ */
+final class SelfPlayData {
+    static final int MAGIC = 0x47365350; // "G6SP"
+    static final int VERSION = 1;
+    static final String SUFFIX = ".g6sp";
+
+    /** One self-play game with the search score of every ply. */
+    static final class Game {
+        final List<Move> moves;
+        final int[] scores;
+        /** Winning colour, {@link PieceColor#EMPTY} for a draw. */
+        final PieceColor winner;
+        final int randomPlies;
+
+        Game(List<Move> moves, int[] scores, PieceColor winner, int randomPlies) {
+            this.moves = moves;
+            this.scores = scores;
+            this.winner = winner;
+            this.randomPlies = randomPlies;
+        }
+    }
+
+    private SelfPlayData() {}
+
+    static boolean isChunk(Path file) {
+        return file.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    /** Appends games to a new chunk file. Not thread-safe. */
+    static final class Writer implements AutoCloseable {
+        private final DataOutputStream out;
+
+        Writer(Path file) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        }
+
+        void write(Game g) throws IOException {
+            out.writeShort(g.moves.size());
+            out.writeByte(g.winner == PieceColor.WHITE ? 1 : g.winner == PieceColor.BLACK ? 2 : 0);
+            out.writeByte(g.randomPlies);
+            for (int i = 0; i < g.moves.size(); i++) {
+                Move m = g.moves.get(i);
+                out.writeShort(m.index1());
+                out.writeShort(m.index2());
+                out.writeInt(g.scores[i]);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    static List<Game> read(Path file) throws IOException {
+        ArrayList<Game> games = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IOException(file + ": not a self-play chunk");
+            if (in.readInt() != VERSION) throw new IOException(file + ": unsupported self-play chunk version");
+            while (true) {
+                int plies;
+                try {
+                    plies = in.readUnsignedShort();
+                } catch (EOFException end) {
+                    break;
+                }
+                try {
+                    int w = in.readUnsignedByte();
+                    int randomPlies = in.readUnsignedByte();
+                    ArrayList<Move> moves = new ArrayList<>(plies);
+                    int[] scores = new int[plies];
+                    for (int i = 0; i < plies; i++) {
+                        int a = in.readUnsignedShort();
+                        int b = in.readUnsignedShort();
+                        moves.add(new Move(a, b));
+                        scores[i] = in.readInt();
+                    }
+                    PieceColor winner = w == 1 ? PieceColor.WHITE : w == 2 ? PieceColor.BLACK : PieceColor.EMPTY;
+                    games.add(new Game(moves, scores, winner, randomPlies));
+                } catch (EOFException torn) {
+                    break;
+                }
+            }
+        }
+        return games;
+    }
+
+    /** The games of a chunk as plain records, for the tools built on {@link GameRecords}. */
+    static List<GameRecords.Record> readRecords(Path file) throws IOException {
+        ArrayList<GameRecords.Record> out = new ArrayList<>();
+        for (Game g : read(file)) out.add(new GameRecords.Record(g.moves, g.winner));
+        return out;
+    }
+}
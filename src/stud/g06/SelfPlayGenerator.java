@@ -0,0 +1,218 @@
+package stud.g06;
+
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Self-play training data: the G06 engine plays itself at a fixed node budget and every game is written to
+ * {@link SelfPlayData} chunks.
+ *
+ * <p>Games are played directly on a {@link BoardPro} through {@link AI#analyze}, one engine per worker thread, with
+ * no referee, clocks or framework players. The first {@code selfplay.randomPlies} moves of each game are random
+ * pairs of empty cells within two cells of a stone, seeded by the game number, so that the fixed-budget engine
+ * does not replay the same few games. Finished games are handed to a single writer that starts a new chunk every
+ * {@code selfplay.chunkGames} games; chunks are numbered after those already in the output directory, so several
+ * runs into one directory add up.
+ *
+ * <p>Usage:
+ * <pre>
+ *   java -cp lib/aiFramework.jar:out stud.g06.SelfPlayGenerator out-dir [games] [threads]
+ * </pre>
+ * Properties: {@code selfplay.nodes} (5000 per move), {@code selfplay.randomPlies} (2), {@code selfplay.maxPlies}
+ * (80, then the game is a draw), {@code selfplay.chunkGames} (1000) and {@code selfplay.seed}. The chunks can be
+ * passed to {@link TexelTuner} and the other {@link GameRecords} tools like text record files.
+ */
+public final class SelfPlayGenerator {
+    private static final ThreadLocal<AI> ENGINE = ThreadLocal.withInitial(AI::new);
+
+    private SelfPlayGenerator() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: SelfPlayGenerator <out-dir> [games] [threads]");
+            System.exit(2);
+        }
+        Path dir = Paths.get(args[0]);
+        int games = args.length >= 2 ? Integer.parseInt(args[1]) : 1000;
+        int threads = args.length >= 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long nodes = Long.getLong("selfplay.nodes", 5_000);
+        int randomPlies = Integer.getInteger("selfplay.randomPlies", 2);
+        int maxPlies = Integer.getInteger("selfplay.maxPlies", 80);
+        int chunkGames = Math.max(1, Integer.getInteger("selfplay.chunkGames", 1000));
+        long seed = Long.getLong("selfplay.seed", System.nanoTime());
+        if (randomPlies < 0 || randomPlies > 255 || maxPlies <= randomPlies || maxPlies > 180) {
+            throw new IllegalArgumentException("need 0 <= selfplay.randomPlies < selfplay.maxPlies <= 180");
+        }
+
+        Files.createDirectories(dir);
+        ChunkSink sink = new ChunkSink(dir, chunkGames, firstFreeChunk(dir));
+        System.err.println("Self-play: " + games + " games, " + threads + " threads, " + nodes
+                + " nodes/move, " + randomPlies + " random plies, seed " + seed + " -> " + dir);
+
+        AtomicInteger next = new AtomicInteger();
+        List<Callable<Void>> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            workers.add(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < games) {
+                    Random rnd = new Random(seed * 0x9E3779B97F4A7C15L + i);
+                    sink.add(playGame(rnd, nodes, randomPlies, maxPlies));
+                }
+                return null;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, daemonThreads("G06-SelfPlay-"));
+        try {
+            for (Future<Void> f : pool.invokeAll(workers)) f.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+            sink.close();
+        }
+        if (sink.games % 100 != 0) sink.report();
+    }
+
+    static SelfPlayData.Game playGame(Random rnd, long nodes, int randomPlies, int maxPlies) {
+        AI engine = ENGINE.get();
+        engine.resetSearchState();
+
+        BoardPro board = new BoardPro();
+        ArrayList<Move> moves = new ArrayList<>();
+        int[] scores = new int[maxPlies];
+        while (!board.gameOver() && moves.size() < maxPlies) {
+            Move m;
+            int ply = moves.size();
+            if (ply < randomPlies) {
+                m = randomNearbyMove(board, rnd);
+            } else {
+                SearchReport r = engine.analyze(board, 0, nodes);
+                m = r.move();
+                scores[ply] = r.score();
+            }
+            if (m == null || !board.legalMove(m)) break;
+            board.makeMove(m);
+            moves.add(m);
+        }
+        PieceColor winner = board.gameOver() ? board.whoseMove().opposite() : PieceColor.EMPTY;
+        int[] played = new int[moves.size()];
+        System.arraycopy(scores, 0, played, 0, played.length);
+        return new SelfPlayData.Game(moves, played, winner, Math.min(randomPlies, moves.size()));
+    }
+
+    // Two distinct empty cells, each within Chebyshev distance 2 of a stone.
+    private static Move randomNearbyMove(BoardPro board, Random rnd) {
+        int[] cells = new int[361];
+        int n = 0;
+        for (int pos = 0; pos < 361; pos++) {
+            if (board.get(pos) == PieceColor.EMPTY && nearStone(board, pos)) cells[n++] = pos;
+        }
+        if (n < 2) return null;
+        int a = rnd.nextInt(n);
+        int b = rnd.nextInt(n - 1);
+        if (b >= a) b++;
+        return new Move(cells[a], cells[b]);
+    }
+
+    private static boolean nearStone(BoardPro board, int pos) {
+        int row = pos / 19;
+        int col = pos % 19;
+        for (int r = Math.max(0, row - 2); r <= Math.min(18, row + 2); r++) {
+            for (int c = Math.max(0, col - 2); c <= Math.min(18, col + 2); c++) {
+                if (board.get(r * 19 + c) != PieceColor.EMPTY) return true;
+            }
+        }
+        return false;
+    }
+
+    private static int firstFreeChunk(Path dir) throws IOException {
+        int next = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                String name = p.getFileName().toString();
+                if (!name.startsWith("selfplay-") || !name.endsWith(SelfPlayData.SUFFIX)) continue;
+                try {
+                    String num = name.substring(9, name.length() - SelfPlayData.SUFFIX.length());
+                    next = Math.max(next, Integer.parseInt(num) + 1);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return next;
+    }
+
+    /** Serialises finished games from all workers into numbered chunk files. */
+    private static final class ChunkSink {
+        private final Path dir;
+        private final int chunkGames;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong positions = new AtomicLong();
+        private int chunk;
+        private int inChunk;
+        private int games;
+        private SelfPlayData.Writer writer;
+
+        ChunkSink(Path dir, int chunkGames, int firstChunk) {
+            this.dir = dir;
+            this.chunkGames = chunkGames;
+            this.chunk = firstChunk;
+        }
+
+        synchronized void add(SelfPlayData.Game g) throws IOException {
+            if (writer == null) writer = new SelfPlayData.Writer(chunkPath(chunk));
+            writer.write(g);
+            positions.addAndGet(g.moves.size() - g.randomPlies);
+            games++;
+            if (++inChunk == chunkGames) {
+                writer.close();
+                writer = null;
+                inChunk = 0;
+                chunk++;
+            }
+            if (games % 100 == 0) report();
+        }
+
+        synchronized void close() throws IOException {
+            if (writer != null) writer.close();
+            writer = null;
+        }
+
+        synchronized void report() {
+            double s = (System.nanoTime() - startNanos) / 1e9;
+            System.err.printf(Locale.ROOT, "%d games, %d positions, %.0f positions/s%n",
+                    games, positions.get(), positions.get() / Math.max(s, 1e-3));
+        }
+
+        private Path chunkPath(int n) {
+            return dir.resolve(String.format(Locale.ROOT, "selfplay-%05d%s", n, SelfPlayData.SUFFIX));
+        }
+    }
+
+    private static java.util.concurrent.ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger id = new AtomicInteger(1);
+        return r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName(prefix + id.getAndIncrement());
+            return t;
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package stud.g06;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread scratch for accumulating weights on board points without allocation.
+ *
+ * <p>Weights are tagged with a generation stamp, so {@link #begin()} invalidates the previous
+ * collection in O(1) instead of clearing 361 cells. Results are emitted as a dense {@code int[]}
+ * of points sorted by a packed primitive key, which keeps the order deterministic (ties broken by
+ * point index) and independent of hash iteration order.
+ *
+ * <p>The buffer is reused by the next {@code begin()} on the same thread, so callers must copy the
+ * result out (the sort methods do) before starting another collection.
+ */
+final class SpotBuffer {
+    private static final ThreadLocal<SpotBuffer> LOCAL = ThreadLocal.withInitial(SpotBuffer::new);
+
+    private static final int POS_BITS = 9;      // 361 < 512
+    private static final int CENTER_BITS = 5;   // center distance score 0..18
+
+    private final int[] weight = new int[361];
+    private final int[] stamp = new int[361];
+    private final int[] points = new int[361];
+    private final int[] keys = new int[361];
+    private int generation;
+    private int size;
+
+    private SpotBuffer() {
+    }
+
+    static SpotBuffer get() {
+        return LOCAL.get();
+    }
+
+    SpotBuffer begin() {
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        size = 0;
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(int pos, int w) {
+        if (stamp[pos] != generation) {
+            stamp[pos] = generation;
+            weight[pos] = w;
+            points[size++] = pos;
+        } else {
+            weight[pos] += w;
+        }
+    }
+
+    /** Adds {@code w} to every empty cell of {@code road}. */
+    void addEmpties(Road road, int w) {
+        for (int m = RoadPattern.emptyMask(road.getPattern()); m != 0; m &= m - 1) {
+            add(road.cellAt(Integer.numberOfTrailingZeros(m)), w);
+        }
+    }
+
+    /** Points by weight descending, then index ascending. */
+    int[] sortedByWeight() {
+        for (int i = 0; i < size; i++) {
+            int pos = points[i];
+            keys[i] = (weight[pos] << POS_BITS) | (511 - pos);
+        }
+        return drainSorted();
+    }
+
+    /** Points by weight descending, then closeness to the center descending, then index ascending. */
+    int[] sortedByWeightThenCenter() {
+        for (int i = 0; i < size; i++) {
+            int pos = points[i];
+            int center = 18 - Math.abs(pos / 19 - 9) - Math.abs(pos % 19 - 9);
+            keys[i] = (((weight[pos] << CENTER_BITS) | center) << POS_BITS) | (511 - pos);
+        }
+        return drainSorted();
+    }
+
+    private int[] drainSorted() {
+        Arrays.sort(keys, 0, size);
+        int[] out = new int[size];
+        for (int i = 0; i < size; i++) {
+            out[i] = 511 - (keys[size - 1 - i] & 511);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,75 @@
+package stud.g06;
+
+/**
+ * Sequential probability ratio test on match results, H0: elo = {@code elo0} against H1: elo = {@code elo1}.
+ *
+ * <p>Uses the usual normal approximation of the generalised SPRT on the per-game score (win 1, draw 1/2, loss 0):
+ * with expected scores {@code s0}, {@code s1} under the two hypotheses and the sample mean {@code m} and variance
+ * {@code v} of {@code n} games, {@code LLR = n (s1 - s0) (2m - s0 - s1) / (2v)}. The test accepts H1 once the LLR
+ * reaches {@code ln((1 - beta) / alpha)} and H0 once it falls to {@code ln(beta / (1 - alpha))}.
+ *
+ * <p>Configured by {@code bench.elo0} (0), {@code bench.elo1} (10), {@code bench.alpha} (0.05) and
+ * {@code bench.beta} (0.05).
+ */
+final class Sprt {
+    enum Verdict {
+        CONTINUE,
+        H0,
+        H1
+    }
+
+    private static final double PRIOR = 0.5;
+
+    final double elo0;
+    final double elo1;
+    final double lower;
+    final double upper;
+
+    Sprt(double elo0, double elo1, double alpha, double beta) {
+        if (!(elo1 > elo0) || !(alpha > 0 && alpha < 1) || !(beta > 0 && beta < 1)) {
+            throw new IllegalArgumentException("need elo1 > elo0 and 0 < alpha, beta < 1");
+        }
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lower = Math.log(beta / (1 - alpha));
+        this.upper = Math.log((1 - beta) / alpha);
+    }
+
+    static Sprt fromProperties() {
+        return new Sprt(
+                Double.parseDouble(System.getProperty("bench.elo0", "0")),
+                Double.parseDouble(System.getProperty("bench.elo1", "10")),
+                Double.parseDouble(System.getProperty("bench.alpha", "0.05")),
+                Double.parseDouble(System.getProperty("bench.beta", "0.05")));
+    }
+
+    /** Log-likelihood ratio of H1 over H0 after {@code wins}/{@code draws}/{@code losses}; 0 before any game. */
+    double llr(int wins, int draws, int losses) {
+        if (wins + draws + losses == 0) return 0;
+        // Half a pseudo-game per outcome (a Jeffreys-style prior) keeps the variance estimate sane while the
+        // sample is small or all results are still equal.
+        double w = wins + PRIOR;
+        double d = draws + PRIOR;
+        double l = losses + PRIOR;
+        double n = w + d + l;
+        double m = (w + 0.5 * d) / n;
+        double v = (w * sq(1 - m) + d * sq(0.5 - m) + l * sq(m)) / n;
+        double s0 = expectedScore(elo0);
+        double s1 = expectedScore(elo1);
+        return n * (s1 - s0) * (2 * m - s0 - s1) / (2 * v);
+    }
+
+    Verdict verdict(double llr) {
+        if (llr >= upper) return Verdict.H1;
+        if (llr <= lower) return Verdict.H0;
+        return Verdict.CONTINUE;
+    }
+
+    private static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    private static double sq(double x) {
+        return x * x;
+    }
+}
@@ -0,0 +1,211 @@
+package stud.g06;
+
+import core.game.ui.Configuration;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * SPSA tuner for the engine's search-shape parameters, driving {@link BenchWorker} processes through
+ * {@link Bench#startWorker}.
+ *
+ * <p>Each iteration draws a random &plusmn;1 direction per parameter and runs the {@code +c_k} and {@code -c_k}
+ * perturbed configurations as a pair of worker JVMs, each playing the same number of games (both colours) against
+ * the same opponent. The score difference of the pair estimates the gradient along that direction; with
+ * {@code procs} cores, {@code procs / 2} pairs run at once and their estimates are averaged. Gains follow the usual
+ * schedule {@code a_k = a / (A + k)^0.602}, {@code c_k = c / k^0.101} with {@code A} a tenth of the iterations, and
+ * a parameter moves by at most {@code a_k * c / (2 c_k)} per iteration.
+ *
+ * <p>The state (iteration and current values) is rewritten atomically after every iteration, and a run started on
+ * an existing state file resumes from it. Perturbation directions are seeded by the iteration number, so a resumed
+ * run continues exactly as an uninterrupted one would.
+ *
+ * <p>Usage:
+ * <pre>
+ *   java -cp lib/aiFramework.jar:out stud.g06.SpsaTuner spsa.state [opponentClass] [iterations] [gamesPerWorker] [procs]
+ * </pre>
+ * Properties: {@code spsa.params} (comma-separated subset of the parameters below, default all) and {@code spsa.a}
+ * (1.0). Other {@code g06.*}/{@code bench.*} properties are forwarded to the workers as in {@link Bench}.
+ */
+public final class SpsaTuner {
+    private static final String HEADER = "# g06 spsa state v1";
+    private static final double ALPHA = 0.602;
+    private static final double GAMMA = 0.101;
+
+    /** One tunable engine parameter: the system property {@link AI} reads, its range and perturbation size. */
+    private static final class Param {
+        final String name;
+        final double min;
+        final double max;
+        final double c;
+        double value;
+
+        Param(String name, double value, double min, double max, double c) {
+            this.name = name;
+            this.value = value;
+            this.min = min;
+            this.max = max;
+            this.c = c;
+        }
+
+        long rounded(double v) {
+            return Math.round(Math.min(Math.max(v, min), max));
+        }
+    }
+
+    private static List<Param> declaredParams() {
+        return new ArrayList<>(List.of(
+                new Param("g06.dtssBudgetMs", 5500, 2000, 7000, 400),
+                new Param("g06.dtssMaxDepth", 27, 9, 45, 4),
+                new Param("g06.dtssMaxPoints", 32, 12, 64, 4),
+                new Param("g06.dtssMaxMoves", 80, 30, 200, 10),
+                new Param("g06.rootTopPointsOpening", 30, 12, 50, 3),
+                new Param("g06.rootTopPoints", 24, 12, 40, 3),
+                new Param("g06.rootMoveLimitOpening", 60, 20, 120, 6),
+                new Param("g06.rootMoveLimit", 35, 15, 80, 4),
+                new Param("g06.parallelMoveCap", 24, 14, 40, 3),
+                new Param("g06.iterationReserve", 8, 4, 16, 1)));
+    }
+
+    private SpsaTuner() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Configuration.GUI = false;
+        if (args.length < 1) {
+            System.err.println("Usage: SpsaTuner <state> [opponentClass] [iterations] [gamesPerWorker] [procs]");
+            System.exit(2);
+        }
+        Path state = Paths.get(args[0]);
+        String opponentClass = args.length >= 2 ? args[1] : "stud.g02.AI";
+        int iterations = args.length >= 3 ? Integer.parseInt(args[2]) : 200;
+        int games = args.length >= 4 ? Integer.parseInt(args[3]) : 2;
+        int procs = args.length >= 5 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        games = Math.max(2, games + (games & 1)); // even, so each worker plays both colours equally
+        int pairs = Math.max(1, procs / 2);
+        double a = Double.parseDouble(System.getProperty("spsa.a", "1.0"));
+        double bigA = Math.max(1, iterations / 10.0);
+
+        List<Param> params = selectParams(System.getProperty("spsa.params", ""));
+        // An interrupted run is resumed from the state file; do not leave its games running.
+        ArrayList<Process> workers = new ArrayList<>(2 * pairs);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> workers.forEach(Process::destroyForcibly)));
+        int start = load(state, params);
+        System.err.println("SPSA: " + params.size() + " parameters, " + pairs + " pairs x " + games
+                + " games per iteration, starting at iteration " + (start + 1) + "/" + iterations);
+
+        for (int k = start + 1; k <= iterations; k++) {
+            double ak = a / Math.pow(bigA + k, ALPHA);
+            double ck = 1 / Math.pow(k, GAMMA);
+            Random rnd = new Random(0x5D5AL * 31 + k);
+
+            int[][] deltas = new int[pairs][params.size()];
+            workers.clear();
+            for (int p = 0; p < pairs; p++) {
+                for (int i = 0; i < params.size(); i++) deltas[p][i] = rnd.nextBoolean() ? 1 : -1;
+                workers.add(Bench.startWorker(opponentClass, games, 1, overrides(params, deltas[p], ck)));
+                workers.add(Bench.startWorker(opponentClass, games, 1, overrides(params, deltas[p], -ck)));
+            }
+            double[] scores = new double[workers.size()];
+            for (int w = 0; w < workers.size(); w++) scores[w] = score(workers.get(w));
+
+            double[] grad = new double[params.size()];
+            for (int p = 0; p < pairs; p++) {
+                double diff = scores[2 * p] - scores[2 * p + 1];
+                for (int i = 0; i < params.size(); i++) grad[i] += diff * deltas[p][i] / pairs;
+            }
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < params.size(); i++) {
+                Param prm = params.get(i);
+                // diff / (2 c_k delta) scaled by c^2 keeps the step in parameter units.
+                prm.value += ak * prm.c * grad[i] / (2 * ck);
+                prm.value = Math.min(Math.max(prm.value, prm.min), prm.max);
+                line.append(' ').append(prm.name.substring(4)).append('=').append(prm.rounded(prm.value));
+            }
+            save(state, params, k);
+            System.err.println("iter " + k + " scores=" + Arrays.toString(scores) + line);
+        }
+
+        StringBuilder flags = new StringBuilder();
+        for (Param p : params) flags.append(" -D").append(p.name).append('=').append(p.rounded(p.value));
+        System.out.println("SPSA result:" + flags);
+    }
+
+    private static List<Param> selectParams(String raw) {
+        List<Param> all = declaredParams();
+        if (raw.isBlank()) return all;
+        List<String> names = Arrays.asList(raw.trim().split("\\s*,\\s*"));
+        ArrayList<Param> out = new ArrayList<>();
+        for (Param p : all) {
+            if (names.contains(p.name)) out.add(p);
+        }
+        if (out.size() != names.size()) throw new IllegalArgumentException("unknown parameter in spsa.params: " + raw);
+        return out;
+    }
+
+    private static Map<String, String> overrides(List<Param> params, int[] delta, double ck) {
+        LinkedHashMap<String, String> out = new LinkedHashMap<>();
+        for (int i = 0; i < params.size(); i++) {
+            Param p = params.get(i);
+            out.put(p.name, Long.toString(p.rounded(p.value + ck * p.c * delta[i])));
+        }
+        return out;
+    }
+
+    /** Waits for a worker and returns its score fraction (win 1, draw 1/2). */
+    private static double score(Process worker) throws IOException, InterruptedException {
+        String out = Bench.readAllStdout(worker);
+        int code = worker.waitFor();
+        String line = Bench.firstResultLine(out);
+        if (code != 0 || line == null) {
+            throw new IllegalStateException("worker failed (exit " + code + "):\n" + out);
+        }
+        BenchWorker.MatchStats stats = new BenchWorker.MatchStats();
+        Bench.addResult(stats, line);
+        int points = 0;
+        for (int[] side : stats.g06Stats) points += 2 * side[2] + side[1];
+        return stats.games == 0 ? 0.5 : points / (2.0 * stats.games);
+    }
+
+    private static int load(Path state, List<Param> params) throws IOException {
+        if (!Files.isRegularFile(state)) return 0;
+        int iteration = 0;
+        for (String line : Files.readAllLines(state, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s+");
+            if (parts[0].equals("iteration")) {
+                iteration = Integer.parseInt(parts[1]);
+            } else if (parts[0].equals("param")) {
+                for (Param p : params) {
+                    if (p.name.equals(parts[1])) p.value = Double.parseDouble(parts[2]);
+                }
+            }
+        }
+        return iteration;
+    }
+
+    private static void save(Path state, List<Param> params, int iteration) throws IOException {
+        Path tmp = state.resolveSibling(state.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            out.write("iteration " + iteration);
+            out.newLine();
+            for (Param p : params) {
+                out.write("param " + p.name + " " + p.value);
+                out.newLine();
+            }
+        }
+        Files.move(tmp, state, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,128 @@
+package stud.g06;
+
+import core.board.Board;
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.util.Random;
+
+import static core.game.Move.SIDE;
+
+/**
+ * The 8 dihedral symmetries of the 19x19 board around the fixed centre stone (index 180).
+ *
+ * <p>Transform {@code t} maps a cell index to {@code PERM[t][pos]}; {@code INVERSE[t]} undoes it. A position's
+ * canonical key is the smallest of its 8 transformed hashes, so positions that are rotations or reflections of each
+ * other share one key. The hash keys use a fixed seed because canonical keys are persisted (opening book).
+ *
+ * <p>{@link BoardPro} keeps all 8 hashes up to date on make/undo; {@link #transformedHashes(Board)} recomputes them
+ * for plain boards.
+ */
+final class Symmetry {
+    static final int COUNT = 8;
+
+    static final int[][] PERM = new int[COUNT][SIDE * SIDE];
+    static final int[] INVERSE = new int[COUNT];
+
+    private static final long[][] KEYS = new long[SIDE * SIDE][2];
+    private static final long TURN_KEY;
+
+    static {
+        for (int pos = 0; pos < SIDE * SIDE; pos++) {
+            int r = pos / SIDE;
+            int c = pos % SIDE;
+            int m = SIDE - 1;
+            PERM[0][pos] = r * SIDE + c;
+            PERM[1][pos] = c * SIDE + (m - r);           // rotate 90
+            PERM[2][pos] = (m - r) * SIDE + (m - c);     // rotate 180
+            PERM[3][pos] = (m - c) * SIDE + r;           // rotate 270
+            PERM[4][pos] = r * SIDE + (m - c);           // mirror columns
+            PERM[5][pos] = (m - r) * SIDE + c;           // mirror rows
+            PERM[6][pos] = c * SIDE + r;                 // main diagonal
+            PERM[7][pos] = (m - c) * SIDE + (m - r);     // anti-diagonal
+        }
+        for (int t = 0; t < COUNT; t++) {
+            for (int u = 0; u < COUNT; u++) {
+                if (PERM[u][PERM[t][1]] == 1 && PERM[u][PERM[t][SIDE]] == SIDE) {
+                    INVERSE[t] = u;
+                    break;
+                }
+            }
+        }
+
+        Random r = new Random(0x6A06_5EEDL);
+        for (int pos = 0; pos < SIDE * SIDE; pos++) {
+            KEYS[pos][0] = r.nextLong();
+            KEYS[pos][1] = r.nextLong();
+        }
+        TURN_KEY = r.nextLong();
+    }
+
+    private Symmetry() {}
+
+    static long key(int pos, PieceColor color) {
+        return KEYS[pos][color == PieceColor.BLACK ? 0 : 1];
+    }
+
+    static long turnKey() {
+        return TURN_KEY;
+    }
+
+    /** Hashes of {@code board} under all 8 transforms (side to move included). */
+    static long[] transformedHashes(Board board) {
+        long[] h = new long[COUNT];
+        for (int pos = 0; pos < SIDE * SIDE; pos++) {
+            PieceColor c = board.get(pos);
+            if (c == PieceColor.EMPTY) continue;
+            for (int t = 0; t < COUNT; t++) {
+                h[t] ^= key(PERM[t][pos], c);
+            }
+        }
+        if (board.whoseMove() == PieceColor.BLACK) {
+            for (int t = 0; t < COUNT; t++) h[t] ^= TURN_KEY;
+        }
+        return h;
+    }
+
+    /** Smallest of the transformed hashes. */
+    static long canonicalKey(long[] hashes) {
+        long best = hashes[0];
+        for (int t = 1; t < COUNT; t++) {
+            if (hashes[t] < best) best = hashes[t];
+        }
+        return best;
+    }
+
+    /** Bit mask of every transform whose hash equals the canonical key (more than one for symmetric positions). */
+    static int canonicalMask(long[] hashes) {
+        long best = canonicalKey(hashes);
+        int mask = 0;
+        for (int t = 0; t < COUNT; t++) {
+            if (hashes[t] == best) mask |= 1 << t;
+        }
+        return mask;
+    }
+
+    /** Packs a move as {@code lo << 16 | hi} after applying {@code t}; stone order is normalised. */
+    static int packMove(Move move, int t) {
+        int a = PERM[t][move.index1()];
+        int b = PERM[t][move.index2()];
+        return (Math.min(a, b) << 16) | Math.max(a, b);
+    }
+
+    /** The smallest packed form of {@code move} over all transforms in {@code mask}. */
+    static int canonicalMove(Move move, int mask) {
+        int best = Integer.MAX_VALUE;
+        for (int t = 0; t < COUNT; t++) {
+            if ((mask & (1 << t)) == 0) continue;
+            best = Math.min(best, packMove(move, t));
+        }
+        return best;
+    }
+
+    /** Maps a packed canonical move back to the board frame that transform {@code t} canonicalised. */
+    static Move unpackMove(int packed, int t) {
+        int inv = INVERSE[t];
+        return new Move(PERM[inv][packed >>> 16], PERM[inv][packed & 0xFFFF]);
+    }
+}
@@ -0,0 +1,243 @@
+package stud.g06;
+
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fits the leaf evaluation's road weights ({@link EvalWeights}) to game outcomes, Texel style.
+ *
+ * <p>Quiet positions (neither side has a 4/5-road) from plies {@code >= tune.minPly} of every game with a known
+ * result are reduced to six road counts seen from the side to move: own {@code n}-roads and opponent
+ * {@code n}-roads for {@code n = 1..3}. Only these six weights are fitted. A 4/5-road is never quiet: for the side
+ * to move it is a win in one, for the opponent a threat that must be blocked. Quiet positions therefore have no
+ * 4/5-roads, and the n = 4, 5 weights are written back unchanged. The evaluation is linear in the counts, so the
+ * whole set lives in one {@code short[]} and each loss evaluation is a tight pass over it. The predicted score is
+ * {@code sigmoid(K * eval)}; {@code K} is fitted once against the starting weights, then Adam minimises the mean
+ * logistic loss over the logarithms of the six weights (which keeps them positive and scale-free). Gradients are
+ * summed over {@code tune.threads} slices in parallel. Every tenth game is held out and its loss is reported.
+ *
+ * <p>Usage:
+ * <pre>
+ *   java -cp lib/aiFramework.jar:out stud.g06.TexelTuner g06.weights bench-games.txt [more.txt ...]
+ * </pre>
+ * Properties: {@code tune.minPly} (6), {@code tune.iterations} (2000), {@code tune.lr} (0.02),
+ * {@code tune.maxWeight} (100000) and {@code tune.threads} (available processors). Start the engine with
+ * {@code -Dg06.weights=g06.weights}.
+ */
+public final class TexelTuner {
+    // Fitted road sizes 1..N; see the class doc for why 4 and 5 are not.
+    private static final int N = 3;
+    private static final int FEATURES = 2 * N;
+
+    private TexelTuner() {}
+
+    /** Compact training set: {@code FEATURES} counts per position and the side-to-move result (0, 1, 2 halves). */
+    private static final class PositionSet {
+        short[] counts = new short[1024 * FEATURES];
+        byte[] results = new byte[1024];
+        int size;
+
+        void add(RoadTable roadTable, PieceColor me, PieceColor winner) {
+            if (size == results.length) {
+                results = Arrays.copyOf(results, size * 2);
+                counts = Arrays.copyOf(counts, size * 2 * FEATURES);
+            }
+            RoadSet[][] byCount = roadTable.getRoadsByCount();
+            boolean black = me == PieceColor.BLACK;
+            int base = size * FEATURES;
+            for (int n = 1; n <= N; n++) {
+                counts[base + n - 1] = (short) (black ? byCount[n][0] : byCount[0][n]).size();
+                counts[base + N + n - 1] = (short) (black ? byCount[0][n] : byCount[n][0]).size();
+            }
+            results[size++] = (byte) (winner == PieceColor.EMPTY ? 1 : winner == me ? 2 : 0);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: TexelTuner <out.weights> <records> [records ...]");
+            System.exit(2);
+        }
+        int minPly = Integer.getInteger("tune.minPly", 6);
+        int iterations = Integer.getInteger("tune.iterations", 2000);
+        double lr = Double.parseDouble(System.getProperty("tune.lr", "0.02"));
+        int threads = Integer.getInteger("tune.threads", Runtime.getRuntime().availableProcessors());
+        // Keeps road sums well below the six-in-a-row and search win scores.
+        double maxWeight = Integer.getInteger("tune.maxWeight", 100_000);
+
+        PositionSet train = new PositionSet();
+        PositionSet held = new PositionSet();
+        int games = 0;
+        for (int a = 1; a < args.length; a++) {
+            for (GameRecords.Record r : GameRecords.read(Paths.get(args[a]))) {
+                if (r.winner == null) continue;
+                addGame(games % 10 == 9 ? held : train, r.moves, r.winner, minPly);
+                games++;
+            }
+        }
+        System.err.println("Loaded " + train.size + " training and " + held.size + " held-out quiet positions from "
+                + games + " games");
+        if (train.size == 0) {
+            System.err.println("No positions to tune on.");
+            System.exit(1);
+        }
+
+        EvalWeights start = EvalWeights.loadDefault();
+        double[] w = new double[FEATURES];
+        for (int n = 1; n <= N; n++) {
+            w[n - 1] = start.roadScore[n];
+            w[N + n - 1] = -start.roadScoreDef[n];
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, daemonThreads("G06-Texel-"));
+        try {
+            double k = fitK(pool, threads, train, w);
+            System.err.printf("K=%.3g  train loss %.6f  held-out loss %.6f%n",
+                    k, loss(pool, threads, train, w, k, null), loss(pool, threads, held, w, k, null));
+
+            // Adam over log|w|; the sign of each weight (own roads +, opponent roads -) is fixed.
+            double[] m = new double[FEATURES];
+            double[] v = new double[FEATURES];
+            double[] grad = new double[FEATURES];
+            for (int it = 1; it <= iterations; it++) {
+                double l = loss(pool, threads, train, w, k, grad);
+                for (int i = 0; i < FEATURES; i++) {
+                    double g = grad[i] * w[i];
+                    m[i] = 0.9 * m[i] + 0.1 * g;
+                    v[i] = 0.999 * v[i] + 0.001 * g * g;
+                    double mh = m[i] / (1 - Math.pow(0.9, it));
+                    double vh = v[i] / (1 - Math.pow(0.999, it));
+                    w[i] *= Math.exp(-lr * mh / (Math.sqrt(vh) + 1e-12));
+                    w[i] = Math.signum(w[i]) * Math.min(Math.max(Math.abs(w[i]), 1), maxWeight);
+                }
+                if (it % 100 == 0 || it == iterations) {
+                    System.err.printf("iter %d  train loss %.6f  held-out loss %.6f  %s%n",
+                            it, l, loss(pool, threads, held, w, k, null), Arrays.toString(round(w)));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int[] rounded = round(w);
+        int[] score = start.roadScore.clone();
+        int[] def = start.roadScoreDef.clone();
+        for (int n = 1; n <= N; n++) {
+            score[n] = rounded[n - 1];
+            def[n] = -rounded[N + n - 1];
+        }
+        Path out = Paths.get(args[0]);
+        new EvalWeights(score, def).save(out);
+        System.err.println("Wrote " + out + ": roadScore=" + Arrays.toString(score)
+                + " roadScoreDef=" + Arrays.toString(def));
+    }
+
+    private static void addGame(PositionSet set, List<Move> moves, PieceColor winner, int minPly) {
+        BoardPro board = new BoardPro();
+        for (int ply = 0; ply < moves.size(); ply++) {
+            if (board.gameOver()) return;
+            PieceColor me = board.whoseMove();
+            if (ply >= minPly && board.countAllThreats(me) == 0 && board.countAllThreats(me.opposite()) == 0) {
+                set.add(board.getRoadTable(), me, winner);
+            }
+            Move m = moves.get(ply);
+            if (!board.legalMove(m)) return;
+            board.makeMove(m);
+        }
+    }
+
+    // Golden-section search for the K minimising the loss, over log10 K in [-8, -1].
+    private static double fitK(ExecutorService pool, int threads, PositionSet set, double[] w)
+            throws InterruptedException {
+        double lo = -8;
+        double hi = -1;
+        double phi = (Math.sqrt(5) - 1) / 2;
+        for (int i = 0; i < 60; i++) {
+            double a = hi - phi * (hi - lo);
+            double b = lo + phi * (hi - lo);
+            if (loss(pool, threads, set, w, Math.pow(10, a), null) < loss(pool, threads, set, w, Math.pow(10, b), null)) {
+                hi = b;
+            } else {
+                lo = a;
+            }
+        }
+        return Math.pow(10, (lo + hi) / 2);
+    }
+
+    /** Mean logistic loss of {@code set}; also stores d(loss)/d(w) into {@code grad} when non-null. */
+    private static double loss(ExecutorService pool, int threads, PositionSet set, double[] w, double k, double[] grad)
+            throws InterruptedException {
+        if (set.size == 0) return Double.NaN;
+        int slices = Math.max(1, Math.min(threads, set.size / 1024));
+        List<Callable<double[]>> tasks = new ArrayList<>(slices);
+        for (int s = 0; s < slices; s++) {
+            int from = (int) ((long) set.size * s / slices);
+            int to = (int) ((long) set.size * (s + 1) / slices);
+            tasks.add(() -> slice(set, from, to, w, k, grad != null));
+        }
+        double total = 0;
+        double[] sum = new double[FEATURES];
+        try {
+            for (Future<double[]> f : pool.invokeAll(tasks)) {
+                double[] part = f.get();
+                total += part[FEATURES];
+                for (int i = 0; i < FEATURES; i++) sum[i] += part[i];
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        if (grad != null) {
+            for (int i = 0; i < FEATURES; i++) grad[i] = sum[i] / set.size;
+        }
+        return total / set.size;
+    }
+
+    // Returns {gradient[0..FEATURES), loss sum}.
+    private static double[] slice(PositionSet set, int from, int to, double[] w, double k, boolean withGrad) {
+        double[] out = new double[FEATURES + 1];
+        short[] counts = set.counts;
+        for (int p = from; p < to; p++) {
+            int base = p * FEATURES;
+            double eval = 0;
+            for (int i = 0; i < FEATURES; i++) eval += counts[base + i] * w[i];
+            double y = set.results[p] * 0.5;
+            double q = 1 / (1 + Math.exp(-k * eval));
+            q = Math.min(Math.max(q, 1e-12), 1 - 1e-12);
+            out[FEATURES] -= y * Math.log(q) + (1 - y) * Math.log(1 - q);
+            if (withGrad) {
+                double d = k * (q - y);
+                for (int i = 0; i < FEATURES; i++) out[i] += d * counts[base + i];
+            }
+        }
+        return out;
+    }
+
+    private static int[] round(double[] w) {
+        int[] out = new int[w.length];
+        for (int i = 0; i < w.length; i++) out[i] = (int) Math.round(w[i]);
+        return out;
+    }
+
+    private static java.util.concurrent.ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger id = new AtomicInteger(1);
+        return r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName(prefix + id.getAndIncrement());
+            return t;
+        };
+    }
+}
@@ -0,0 +1,177 @@
+package stud.g06;
+
+import core.board.PieceColor;
+
+import java.util.Arrays;
+
+/**
+ * Enumerates attacker stone pairs that create at least a double threat, using only road patterns.
+ *
+ * <p>A pair is forcing when, after placing it, the attacker's 4/5-roads cannot all be killed by one defender
+ * stone, i.e. the empty cells of those roads have no common point (the road-level hitting set has size
+ * {@code >= 2}). New 4/5-roads can only come from 3-roads that receive a stone and 2-roads that receive both,
+ * so candidates are drawn from:
+ * <ul>
+ *   <li>two cells on 3-roads (each upgrades its roads 3&rarr;4, both together 3&rarr;5),</li>
+ *   <li>a cell on 3-roads plus one of the caller's extra points (covers a single stone that already opens
+ *       two roads, and a stone spent blocking the defender),</li>
+ *   <li>two empty cells of the same 2-road (2&rarr;4).</li>
+ * </ul>
+ * Every candidate is then checked exactly against the road table without touching the board, including the
+ * requirement that it blocks all of the defender's own 4/5-roads.
+ */
+final class ThreatPairs {
+    private ThreatPairs() {
+    }
+
+    /**
+     * Returns forcing pairs packed as {@code (min << 9) | max}, in ascending order.
+     *
+     * @param extra additional single points worth pairing with 3-road cells (best first)
+     */
+    static int[] forcingPairs(RoadTable roadTable, PieceColor attacker, int[] extra, int extraLimit) {
+        RoadSet[][] byCount = roadTable.getRoadsByCount();
+        boolean black = attacker == PieceColor.BLACK;
+        RoadSet two = black ? byCount[2][0] : byCount[0][2];
+        RoadSet three = black ? byCount[3][0] : byCount[0][3];
+        RoadSet oppFour = black ? byCount[0][4] : byCount[4][0];
+        RoadSet oppFive = black ? byCount[0][5] : byCount[5][0];
+
+        SpotBuffer spots = SpotBuffer.get().begin();
+        for (Road road : three) spots.addEmpties(road, 1);
+        int[] onThree = spots.sortedByWeight();
+
+        spots.begin();
+        for (int i = 0; i < Math.min(extra.length, extraLimit); i++) spots.add(extra[i], 1);
+        for (Road road : oppFive) spots.addEmpties(road, 1);
+        for (Road road : oppFour) spots.addEmpties(road, 1);
+        int[] partners = spots.sortedByWeight();
+
+        int[] pairs = new int[64];
+        int n = 0;
+        for (int i = 0; i < onThree.length; i++) {
+            for (int j = i + 1; j < onThree.length; j++) {
+                if (n == pairs.length) pairs = Arrays.copyOf(pairs, n * 2);
+                pairs[n++] = pack(onThree[i], onThree[j]);
+            }
+            for (int p : partners) {
+                if (p == onThree[i]) continue;
+                if (n == pairs.length) pairs = Arrays.copyOf(pairs, n * 2);
+                pairs[n++] = pack(onThree[i], p);
+            }
+        }
+        for (Road road : two) {
+            for (int m = RoadPattern.emptyMask(road.getPattern()); m != 0; m &= m - 1) {
+                int a = road.cellAt(Integer.numberOfTrailingZeros(m));
+                for (int rest = m & (m - 1); rest != 0; rest &= rest - 1) {
+                    if (n == pairs.length) pairs = Arrays.copyOf(pairs, n * 2);
+                    pairs[n++] = pack(a, road.cellAt(Integer.numberOfTrailingZeros(rest)));
+                }
+            }
+        }
+
+        Arrays.sort(pairs, 0, n);
+        int[] state = new int[4];
+        int out = 0;
+        for (int i = 0; i < n; i++) {
+            int pair = pairs[i];
+            if (i > 0 && pairs[i - 1] == pair) continue;
+            if (!blocksAll(oppFour, oppFive, first(pair), second(pair))) continue;
+            if (!isForcing(roadTable, attacker, first(pair), second(pair), state)) continue;
+            pairs[out++] = pair;
+        }
+        return Arrays.copyOf(pairs, out);
+    }
+
+    static int pack(int a, int b) {
+        return a < b ? (a << 9) | b : (b << 9) | a;
+    }
+
+    static int first(int pair) {
+        return pair >>> 9;
+    }
+
+    static int second(int pair) {
+        return pair & 511;
+    }
+
+    // Otherwise the defender still has a 4/5-road and simply wins.
+    private static boolean blocksAll(RoadSet oppFour, RoadSet oppFive, int a, int b) {
+        for (Road road : oppFour) {
+            if (!contains(road, a) && !contains(road, b)) return false;
+        }
+        for (Road road : oppFive) {
+            if (!contains(road, a) && !contains(road, b)) return false;
+        }
+        return true;
+    }
+
+    // Scratch layout for isForcing: the cells that could still kill every threat seen so far.
+    private static final int CAND1 = 0;
+    private static final int CAND2 = 1;
+    private static final int SEEN = 2;
+    private static final int SIX = 3;
+
+    private static boolean isForcing(RoadTable roadTable, PieceColor attacker, int a, int b, int[] state) {
+        state[CAND1] = -1;
+        state[CAND2] = -1;
+        state[SEEN] = 0;
+        state[SIX] = 0;
+
+        RoadSet[][] byCount = roadTable.getRoadsByCount();
+        boolean black = attacker == PieceColor.BLACK;
+        for (Road road : black ? byCount[4][0] : byCount[0][4]) {
+            if (!contains(road, a) && !contains(road, b)) visit(road, road.getPattern(), attacker, state);
+        }
+        for (Road road : black ? byCount[5][0] : byCount[0][5]) {
+            if (!contains(road, a) && !contains(road, b)) visit(road, road.getPattern(), attacker, state);
+        }
+        int cell = RoadPattern.cellCode(attacker);
+        for (Road road : roadTable.getRoadsThroughPos(a)) {
+            int code = place(road.getPattern(), road.offsetOf(a), cell);
+            if (contains(road, b)) code = place(code, road.offsetOf(b), cell);
+            visit(road, code, attacker, state);
+        }
+        for (Road road : roadTable.getRoadsThroughPos(b)) {
+            if (contains(road, a)) continue;
+            visit(road, place(road.getPattern(), road.offsetOf(b), cell), attacker, state);
+        }
+
+        if (state[SIX] != 0) return true;
+        if (state[SEEN] == 0) return false;
+        return state[CAND1] < 0 && state[CAND2] < 0;
+    }
+
+    private static void visit(Road road, int code, PieceColor attacker, int[] state) {
+        int threat = RoadPattern.threat(code, attacker);
+        if (threat == 6) {
+            state[SIX] = 1;
+            return;
+        }
+        if (threat < 4) return;
+        if (state[SEEN] == 0) {
+            state[SEEN] = 1;
+            int m = RoadPattern.emptyMask(code);
+            state[CAND1] = road.cellAt(Integer.numberOfTrailingZeros(m));
+            m &= m - 1;
+            state[CAND2] = m != 0 ? road.cellAt(Integer.numberOfTrailingZeros(m)) : -1;
+            return;
+        }
+        if (state[CAND1] >= 0 && !emptyOn(road, code, state[CAND1])) state[CAND1] = -1;
+        if (state[CAND2] >= 0 && !emptyOn(road, code, state[CAND2])) state[CAND2] = -1;
+    }
+
+    private static int place(int code, int offset, int cell) {
+        return code | (cell << (2 * offset));
+    }
+
+    private static boolean emptyOn(Road road, int code, int pos) {
+        if (!contains(road, pos)) return false;
+        return (RoadPattern.emptyMask(code) & (1 << road.offsetOf(pos))) != 0;
+    }
+
+    private static boolean contains(Road road, int pos) {
+        int offset = road.offsetOf(pos);
+        return offset >= 0 && offset < 6 && road.cellAt(offset) == pos;
+    }
+}